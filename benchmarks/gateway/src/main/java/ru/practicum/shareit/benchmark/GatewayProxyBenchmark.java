@@ -0,0 +1,139 @@
+package ru.practicum.shareit.benchmark;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerRouteGuard;
+import ru.practicum.shareit.client.SingleFlight;
+import ru.practicum.shareit.item.ItemClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Накладные расходы клиентов шлюза поверх голого WebClient. Сервер заменён локальной заглушкой,
+ * которая отдаёт один и тот же JSON заданного размера с ETag.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GatewayProxyBenchmark {
+    @Param({"256", "16384"})
+    private int bodySize;
+
+    private DisposableServer stub;
+    private ConnectionProvider connectionProvider;
+    private WebClient webClient;
+    private BookingClient bookingClient;
+    private ItemClient revalidatingItemClient;
+    private ItemClient cachingItemClient;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        byte[] body = ("{\"description\":\"" + "д".repeat(bodySize / 2) + "\"}").getBytes(StandardCharsets.UTF_8);
+        stub = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .handle((request, response) -> {
+                    response.header(HttpHeaders.CONTENT_TYPE, "application/json")
+                            .header(HttpHeaders.ETAG, "\"1\"");
+                    if ("\"1\"".equals(request.requestHeaders().get(HttpHeaders.IF_NONE_MATCH))) {
+                        return response.status(HttpStatus.NOT_MODIFIED.value()).send();
+                    }
+                    return response.header(HttpHeaders.CONTENT_LENGTH, String.valueOf(body.length))
+                            .sendByteArray(Mono.just(body));
+                })
+                .bindNow();
+
+        connectionProvider = ConnectionProvider.create("benchmark", 50);
+        webClient = WebClient.builder()
+                .baseUrl("http://localhost:" + stub.port())
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connectionProvider).keepAlive(true)))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(-1))
+                .build();
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ServerRouteGuard routeGuard = new ServerRouteGuard(CircuitBreakerRegistry.ofDefaults(),
+                BulkheadRegistry.ofDefaults(),
+                TimeLimiterRegistry.of(TimeLimiterConfig.custom().timeoutDuration(Duration.ofSeconds(5)).build()));
+        SingleFlight singleFlight = new SingleFlight(1000, Duration.ofSeconds(2), meterRegistry);
+        bookingClient = new BookingClient(webClient, responseCache(Duration.ZERO, meterRegistry), singleFlight,
+                routeGuard);
+        revalidatingItemClient = new ItemClient(webClient, responseCache(Duration.ZERO, meterRegistry),
+                singleFlight, routeGuard);
+        cachingItemClient = new ItemClient(webClient, responseCache(Duration.ofHours(1), meterRegistry),
+                singleFlight, routeGuard);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        connectionProvider.dispose();
+        stub.disposeNow();
+    }
+
+    @Benchmark
+    public byte[] webClient() {
+        return webClient.get()
+                .uri("/bookings/1")
+                .retrieve()
+                .bodyToMono(byte[].class)
+                .block();
+    }
+
+    @Benchmark
+    public void streamedProxy() throws IOException {
+        write(bookingClient.getBookingById(1, 1L).block());
+    }
+
+    @Benchmark
+    public void revalidatedProxy() throws IOException {
+        write(revalidatingItemClient.getItemById(1, 1).block());
+    }
+
+    @Benchmark
+    public void cachedProxy() throws IOException {
+        write(cachingItemClient.getItemById(1, 1).block());
+    }
+
+    private static ResponseCache responseCache(Duration freshFor, MeterRegistry meterRegistry) {
+        return new ResponseCache(10_000, Duration.ofMinutes(10), freshFor, meterRegistry);
+    }
+
+    private static void write(ResponseEntity<StreamingResponseBody> response) throws IOException {
+        response.getBody().writeTo(OutputStream.nullOutputStream());
+    }
+}
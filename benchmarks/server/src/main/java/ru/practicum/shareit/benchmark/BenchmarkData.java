@@ -0,0 +1,111 @@
+package ru.practicum.shareit.benchmark;
+
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemBookingDates;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Детерминированные наборы данных для бенчмарков: одинаковый размер даёт одинаковые данные при каждом запуске.
+ */
+final class BenchmarkData {
+    static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 12, 0);
+    private static final long SEED = 42;
+
+    private BenchmarkData() {
+    }
+
+    static User user(int id) {
+        return new User(id, "user " + id, "user" + id + "@yandex.ru", 0);
+    }
+
+    static List<Item> items(int count, User owner) {
+        List<Item> items = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            items.add(new Item(i, "дрель " + i, "аккумуляторная дрель, комплект " + i, true, owner, null, 0));
+        }
+        return items;
+    }
+
+    static List<Booking> bookings(int count) {
+        Random random = new Random(SEED);
+        User owner = user(1);
+        List<Item> items = items(Math.max(1, count / 4), owner);
+        List<Booking> bookings = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            LocalDateTime start = NOW.plusHours(random.nextInt(24 * 60) - 24 * 30);
+            bookings.add(new Booking(i, start, start.plusHours(1 + random.nextInt(72)),
+                    items.get(random.nextInt(items.size())), user(2 + random.nextInt(100)),
+                    BookingStatus.values()[random.nextInt(BookingStatus.values().length)], 0));
+        }
+        return bookings;
+    }
+
+    /**
+     * Даты бронирований есть у половины вещей, отзывы распределены неравномерно: первые вещи получают больше.
+     */
+    static List<ItemBookingDates> bookingDates(List<Item> items) {
+        List<ItemBookingDates> dates = new ArrayList<>();
+        for (Item item : items) {
+            if (item.getId() % 2 == 0) {
+                dates.add(bookingDates(item.getId(), NOW.minusDays(1), NOW.plusDays(1)));
+            }
+        }
+        return dates;
+    }
+
+    static List<CommentDto> comments(List<Item> items, int perItem) {
+        Random random = new Random(SEED);
+        List<CommentDto> comments = new ArrayList<>();
+        int id = 1;
+        for (Item item : items) {
+            int count = random.nextInt(2 * perItem + 1) * items.size() / (items.size() + item.getId());
+            for (int i = 0; i < count; i++) {
+                comments.add(new CommentDto(id++, "отличная дрель, рекомендую", item.getId(), item.getName(),
+                        "user " + (2 + random.nextInt(100)), NOW.minusDays(random.nextInt(30))));
+            }
+        }
+        return comments;
+    }
+
+    /**
+     * Заглушка репозитория: метод с именем из results возвращает заранее подготовленный результат.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T stub(Class<T> type, Map<String, Object> results) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (!results.containsKey(method.getName())) {
+                throw new UnsupportedOperationException(method.getName());
+            }
+            return results.get(method.getName());
+        });
+    }
+
+    private static ItemBookingDates bookingDates(int itemId, LocalDateTime last, LocalDateTime next) {
+        return new ItemBookingDates() {
+            @Override
+            public Integer getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public LocalDateTime getLastBooking() {
+                return last;
+            }
+
+            @Override
+            public LocalDateTime getNextBooking() {
+                return next;
+            }
+        };
+    }
+}
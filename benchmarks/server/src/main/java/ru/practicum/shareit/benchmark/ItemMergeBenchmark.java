@@ -0,0 +1,73 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.CommentMapper;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сборка ответа ItemServiceImpl.getAllItems из трёх выборок без базы: репозитории возвращают
+ * заранее подготовленные строки, поэтому измеряется только объединение дат бронирований и отзывов с вещами.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemMergeBenchmark {
+    @Param({"10", "100", "1000"})
+    private int items;
+
+    @Param({"0", "5"})
+    private int commentsPerItem;
+
+    private ItemServiceImpl itemService;
+
+    @Setup
+    public void setUp() {
+        User owner = BenchmarkData.user(1);
+        List<Item> ownerItems = BenchmarkData.items(items, owner);
+        List<ItemDto> itemDtos = ownerItems.stream()
+                .map(item -> new ItemDto(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                        owner.getId(), owner.getName(), null))
+                .toList();
+        List<CommentDto> comments = BenchmarkData.comments(ownerItems, commentsPerItem);
+
+        itemService = new ItemServiceImpl(
+                BenchmarkData.stub(ItemRepository.class, Map.of("findItemDtosByOwnerId", itemDtos)),
+                BenchmarkData.stub(UserService.class, Map.of("existsById", true)),
+                BenchmarkData.stub(CommentRepository.class, Map.of("findCommentDtosByItemOwnerId", comments)),
+                BenchmarkData.stub(BookingRepository.class,
+                        Map.of("findItemBookingDatesByOwner", BenchmarkData.bookingDates(ownerItems))),
+                null, new ItemMapper(), new CommentMapper(), null, null);
+    }
+
+    @Benchmark
+    public Collection<ItemDto> getAllItems() {
+        return itemService.getAllItems(1);
+    }
+}
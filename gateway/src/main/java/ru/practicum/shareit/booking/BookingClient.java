@@ -1,57 +1,75 @@
 package ru.practicum.shareit.booking;
 
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerRouteGuard;
+import ru.practicum.shareit.client.SingleFlight;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
-    @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
-        );
+    public BookingClient(WebClient serverWebClient, ResponseCache responseCache, SingleFlight singleFlight,
+                         ServerRouteGuard routeGuard) {
+        super(serverWebClient, responseCache, singleFlight, routeGuard.route("booking"), API_PREFIX, API_PREFIX, "/items");
     }
 
-    public ResponseEntity<Object> getAllBookingsByUser(long userId, BookingState state) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name()
-        );
-        return get("?state={state}", userId, parameters);
+    public Mono<ResponseEntity<StreamingResponseBody>> getAllBookingsByUser(
+            long userId, BookingState state, int from, int size, String cursor) {
+        return get(pagePath("", cursor), userId, pageParameters(state, from, size, cursor));
     }
 
 
-    public ResponseEntity<Object> createBooking(long userId, BookItemRequestDto requestDto) {
+    public Mono<ResponseEntity<StreamingResponseBody>> createBooking(long userId, BookItemRequestDto requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> getBookingById(long userId, Long bookingId) {
+    public Mono<ResponseEntity<StreamingResponseBody>> getBookingById(long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getAllBookingsByUserItems(long userId, BookingState bookingState) {
-        Map<String, Object> parameters = Map.of(
-                "state", bookingState.name()
-        );
-        return get("/owner?state={state}", userId, parameters);
+    public Mono<ResponseEntity<StreamingResponseBody>> getAllBookingsByUserItems(
+            long userId, BookingState bookingState, int from, int size, String cursor) {
+        return get(pagePath("/owner", cursor), userId, pageParameters(bookingState, from, size, cursor));
     }
 
-    public ResponseEntity<Object> approveBooking(long userId, long bookingId, Boolean approved) {
+    public Mono<ResponseEntity<StreamingResponseBody>> approveBooking(long userId, long bookingId, Boolean approved) {
         Map<String, Object> parameters = Map.of("approved", approved);
         return patch("/" + bookingId + "?approved=" + approved, userId, parameters);
     }
+
+    public Mono<ResponseEntity<StreamingResponseBody>> getItemAvailability(long itemId, LocalDateTime start, LocalDateTime end) {
+        Map<String, Object> parameters = Map.of(
+                "start", start,
+                "end", end
+        );
+        return get("/availability/" + itemId + "?start={start}&end={end}", null, parameters);
+    }
+
+    private static String pagePath(String path, String cursor) {
+        String query = path + "?state={state}&from={from}&size={size}";
+        return cursor != null ? query + "&cursor={cursor}" : query;
+    }
+
+    private static Map<String, Object> pageParameters(BookingState state, int from, int size, String cursor) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", state.name());
+        parameters.put("from", from);
+        parameters.put("size", size);
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+        }
+        return parameters;
+    }
 }
@@ -1,15 +1,22 @@
 package ru.practicum.shareit.booking;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 
+import java.time.LocalDateTime;
+
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -20,41 +27,67 @@ public class BookingController {
     private final BookingClient bookingClient;
 
     @GetMapping
-    public ResponseEntity<Object> getAllBookingsByUser(@RequestHeader("X-Sharer-User-Id") int userId,
-                                                       @RequestParam(name = "state", defaultValue = "all") String stateParam) {
+    public Mono<ResponseEntity<StreamingResponseBody>> getAllBookingsByUser(
+            @RequestHeader("X-Sharer-User-Id") int userId,
+            @RequestParam(name = "state", defaultValue = "all") String stateParam,
+            @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+            @Positive @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-        log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId);
-        return bookingClient.getAllBookingsByUser(userId, state);
+        log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
+        return bookingClient.getAllBookingsByUser(userId, state, from, size, cursor);
     }
 
     @PostMapping
-    public ResponseEntity<Object> createBooking(@RequestHeader("X-Sharer-User-Id") int userId,
-                                                @RequestBody @Valid BookItemRequestDto requestDto) {
+    public Mono<ResponseEntity<StreamingResponseBody>> createBooking(
+            @RequestHeader("X-Sharer-User-Id") int userId,
+            @RequestBody @Valid BookItemRequestDto requestDto) {
         log.info("Creating booking {}, userId={}", requestDto, userId);
         return bookingClient.createBooking(userId, requestDto);
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBookingById(@RequestHeader("X-Sharer-User-Id") int userId,
-                                                 @PathVariable Long bookingId) {
+    public Mono<ResponseEntity<StreamingResponseBody>> getBookingById(@RequestHeader("X-Sharer-User-Id") int userId,
+                                                                      @PathVariable Long bookingId) {
         log.info("Get booking {}, userId={}", bookingId, userId);
         return bookingClient.getBookingById(userId, bookingId);
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> approveBooking(@RequestHeader("X-Sharer-User-Id") int userId,
-                                                 @PathVariable Long bookingId,
-                                                 @RequestParam Boolean approved) {
+    public Mono<ResponseEntity<StreamingResponseBody>> approveBooking(@RequestHeader("X-Sharer-User-Id") int userId,
+                                                                      @PathVariable Long bookingId,
+                                                                      @RequestParam Boolean approved) {
         log.info("Approve booking {}, userId={}, approved={}", bookingId, userId, approved);
         return bookingClient.approveBooking(userId, bookingId, approved);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getAllBookingsByUserItems(@RequestHeader("X-Sharer-User-Id") int userId,
-                                                            @RequestParam(defaultValue = "ALL") String state) {
+    public Mono<ResponseEntity<StreamingResponseBody>> getAllBookingsByUserItems(
+            @RequestHeader("X-Sharer-User-Id") int userId,
+            @RequestParam(defaultValue = "ALL") String state,
+            @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+            @Positive @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor) {
         BookingState bookingState = BookingState.from(state)
                 .orElseThrow(() -> new IllegalArgumentException("Неизвестный параметр" + state));
-        return bookingClient.getAllBookingsByUserItems(userId, bookingState);
+        log.info("Get owner bookings with state {}, userId={}, from={}, size={}", state, userId, from, size);
+        return bookingClient.getAllBookingsByUserItems(userId, bookingState, from, size, cursor);
+    }
+
+    @GetMapping("/availability/{itemId}")
+    public Mono<ResponseEntity<StreamingResponseBody>> getItemAvailability(
+            @PathVariable long itemId,
+            @RequestParam
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime start,
+            @RequestParam
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime end) {
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("Дата начала периода должна быть раньше даты окончания");
+        }
+        log.info("Get availability of item {} from {} to {}", itemId, start, end);
+        return bookingClient.getItemAvailability(itemId, start, end);
     }
 }
@@ -1,117 +1,226 @@
 package ru.practicum.shareit.client;
 
-import org.springframework.http.*;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ResponseCache.CachedResponse;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 public class BaseClient {
-    protected final RestTemplate rest;
-
-    public BaseClient(RestTemplate rest) {
-        this.rest = rest;
-    }
-
-    protected ResponseEntity<Object> get(String path) {
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of("connection", "keep-alive", "transfer-encoding");
+
+    protected final WebClient webClient;
+    private final ResponseCache responseCache;
+    private final SingleFlight singleFlight;
+    private final ServerRouteGuard.Route route;
+    private final String apiPrefix;
+    private final List<String> invalidatedPrefixes;
+
+    /**
+     * @param invalidatedPrefixes префиксы путей, кэшированные ответы по которым сбрасываются
+     *                            после любого изменяющего запроса клиента
+     */
+    public BaseClient(WebClient webClient, ResponseCache responseCache, SingleFlight singleFlight,
+                      ServerRouteGuard.Route route, String apiPrefix, String... invalidatedPrefixes) {
+        this.webClient = webClient;
+        this.responseCache = responseCache;
+        this.singleFlight = singleFlight;
+        this.route = route;
+        this.apiPrefix = apiPrefix;
+        this.invalidatedPrefixes = List.of(invalidatedPrefixes);
+    }
+
+    protected Mono<ResponseEntity<StreamingResponseBody>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Mono<ResponseEntity<StreamingResponseBody>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<StreamingResponseBody>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected Mono<ResponseEntity<StreamingResponseBody>> getCached(String path) {
+        return getCached(path, null, null);
+    }
+
+    protected Mono<ResponseEntity<StreamingResponseBody>> getCached(String path, long userId) {
+        return getCached(path, userId, null);
+    }
+
+    protected Mono<ResponseEntity<StreamingResponseBody>> getCached(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return sendCachedRequest(path, userId, parameters, true);
+    }
+
+    /**
+     * Для ответов, которые не зависят от пользователя: запись кэша общая для всех пользователей,
+     * а X-Sharer-User-Id серверу передаётся от того запроса, который к нему пошёл.
+     */
+    protected Mono<ResponseEntity<StreamingResponseBody>> getCachedForAnyUser(String path, long userId) {
+        return sendCachedRequest(path, userId, null, false);
+    }
+
+    protected <T> Mono<ResponseEntity<StreamingResponseBody>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<StreamingResponseBody>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<StreamingResponseBody>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<StreamingResponseBody>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<StreamingResponseBody>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<StreamingResponseBody>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> Mono<ResponseEntity<StreamingResponseBody>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<StreamingResponseBody>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<StreamingResponseBody>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<StreamingResponseBody>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected Mono<ResponseEntity<StreamingResponseBody>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<StreamingResponseBody>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    private <T> Mono<ResponseEntity<StreamingResponseBody>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(apiPrefix + path, parameters != null ? parameters : Map.of())
+                .headers(headers -> setDefaultHeaders(headers, userId));
+        WebClient.RequestHeadersSpec<?> requestWithBody = body != null ? request.bodyValue(body) : request;
 
-        ResponseEntity<Object> shareitServerResponse;
-        try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+        Mono<ResponseEntity<StreamingResponseBody>> response = route.guardStreaming(requestWithBody.retrieve()
+                        .onStatus(status -> true, clientResponse -> Mono.empty())
+                        .toEntityFlux(DataBuffer.class))
+                .map(BaseClient::prepareGatewayResponse);
+        if (method == HttpMethod.GET) {
+            return response;
+        }
+        return response.doFinally(signal -> responseCache.invalidate(invalidatedPrefixes));
+    }
+
+    /**
+     * Свежая запись кэша отдаётся без обращения к серверу, устаревшая перепроверяется запросом с If-None-Match.
+     * Одновременные одинаковые запросы уходят на сервер одним. Кэшируются только успешные ответы с ETag.
+     */
+    private Mono<ResponseEntity<StreamingResponseBody>> sendCachedRequest(String path, Long userId, @Nullable Map<String, Object> parameters,
+                                                                          boolean perUser) {
+        ResponseCache.Key key = new ResponseCache.Key(apiPrefix + path,
+                parameters != null ? parameters : Map.of(), perUser ? userId : null);
+        CachedResponse cached = responseCache.get(key);
+        if (cached != null && responseCache.isFresh(cached)) {
+            return Mono.just(prepareGatewayResponse(cached));
         }
-        return prepareGatewayResponse(shareitServerResponse);
+        long generation = responseCache.generation(key);
+        return singleFlight.execute(key, generation, () -> revalidate(key, userId, cached, generation))
+                .map(BaseClient::prepareGatewayResponse);
+    }
+
+    private Mono<CachedResponse> revalidate(ResponseCache.Key key, Long userId, @Nullable CachedResponse cached,
+                                          long generation) {
+        return route.guard(webClient.get()
+                        .uri(key.path(), key.parameters())
+                        .headers(headers -> {
+                            setDefaultHeaders(headers, userId);
+                            if (cached != null && cached.eTag() != null) {
+                                headers.setIfNoneMatch(cached.eTag());
+                            }
+                        })
+                        .retrieve()
+                        .onStatus(status -> true, clientResponse -> Mono.empty())
+                        .toEntity(byte[].class))
+                .map(response -> {
+                    if (cached != null && response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                        CachedResponse revalidated = cached.revalidated();
+                        responseCache.put(key, revalidated, generation);
+                        return revalidated;
+                    }
+                    CachedResponse fetched = new CachedResponse(response.getStatusCode(),
+                            HttpHeaders.readOnlyHttpHeaders(copyEndToEndHeaders(response.getHeaders())),
+                            response.getBody() != null ? response.getBody() : new byte[0]);
+                    if (fetched.status().is2xxSuccessful() && fetched.eTag() != null) {
+                        responseCache.put(key, fetched, generation);
+                    } else {
+                        responseCache.invalidate(key);
+                    }
+                    return fetched;
+                });
+    }
+
+    /**
+     * Тело ответа сервера передаётся клиенту как есть, буфер за буфером, без разбора JSON.
+     */
+    private static ResponseEntity<StreamingResponseBody> prepareGatewayResponse(
+            ResponseEntity<Flux<DataBuffer>> response) {
+        Flux<DataBuffer> body = response.getBody() != null ? response.getBody() : Flux.empty();
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(copyEndToEndHeaders(response.getHeaders()))
+                .body(outputStream -> DataBufferUtils.write(body, outputStream)
+                        .doOnNext(DataBufferUtils::release)
+                        .blockLast());
+    }
+
+    private static ResponseEntity<StreamingResponseBody> prepareGatewayResponse(CachedResponse response) {
+        return ResponseEntity.status(response.status())
+                .headers(response.headers())
+                .body(outputStream -> outputStream.write(response.body()));
+    }
+
+    private static HttpHeaders copyEndToEndHeaders(HttpHeaders serverHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        serverHeaders.forEach((name, values) -> {
+            if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                headers.addAll(name, values);
+            }
+        });
+        return headers;
     }
 
-    private HttpHeaders defaultHeaders(Long userId) {
-        HttpHeaders headers = new HttpHeaders();
+    private static void setDefaultHeaders(HttpHeaders headers, Long userId) {
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.setAccept(List.of(MediaType.APPLICATION_JSON));
         if (userId != null) {
             headers.set("X-Sharer-User-Id", String.valueOf(userId));
         }
-        return headers;
-    }
-
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
-
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
-
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
-        }
-
-        return responseBuilder.build();
     }
 }
@@ -0,0 +1,112 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Кэш ответов сервера на GET-запросы шлюза.
+ * Запись в течение fresh-for отдаётся без обращения к серверу, после этого перепроверяется условным запросом
+ * с If-None-Match. Изменяющие запросы сбрасывают записи по префиксам затронутых путей; ответ, запрошенный
+ * до такого сброса, в кэш не попадает.
+ * Сброс не обходит кэш: у каждого префикса свой счётчик сбросов, запись помнит сумму счётчиков префиксов
+ * своего пути и при чтении с изменившейся суммой удаляется. Префиксов столько, сколько клиентов у шлюза,
+ * поэтому и сброс, и проверка стоят O(число префиксов).
+ */
+@Component
+public class ResponseCache {
+    private final Cache<Key, Entry> responses;
+    private final long freshForNanos;
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    public ResponseCache(@Value("${shareit-gateway.cache.maximum-size:10000}") long maximumSize,
+                         @Value("${shareit-gateway.cache.expire-after-write:10m}") Duration expireAfterWrite,
+                         @Value("${shareit-gateway.cache.fresh-for:5s}") Duration freshFor,
+                         MeterRegistry meterRegistry) {
+        responses = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        freshForNanos = freshFor.toNanos();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "gateway-responses");
+    }
+
+    public CachedResponse get(Key key) {
+        Entry entry = responses.getIfPresent(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.generation() != generation(key)) {
+            responses.asMap().remove(key, entry);
+            return null;
+        }
+        return entry.response();
+    }
+
+    public boolean isFresh(CachedResponse response) {
+        return System.nanoTime() - response.validatedAt() < freshForNanos;
+    }
+
+    /**
+     * Сумма счётчиков сбросов префиксов, под которые попадает путь ключа. Счётчики только растут,
+     * поэтому сумма меняется при любом сбросе, затрагивающем ключ.
+     */
+    public long generation(Key key) {
+        long generation = 0;
+        for (Map.Entry<String, AtomicLong> prefix : generations.entrySet()) {
+            if (key.path().startsWith(prefix.getKey())) {
+                generation += prefix.getValue().get();
+            }
+        }
+        return generation;
+    }
+
+    /**
+     * @param generation значение {@link #generation(Key)} на момент отправки запроса на сервер
+     */
+    public void put(Key key, CachedResponse response, long generation) {
+        if (generation(key) == generation) {
+            responses.put(key, new Entry(response, generation));
+        }
+    }
+
+    public void invalidate(Key key) {
+        responses.invalidate(key);
+    }
+
+    public void invalidate(Collection<String> pathPrefixes) {
+        pathPrefixes.forEach(prefix -> generations.computeIfAbsent(prefix, p -> new AtomicLong()).incrementAndGet());
+    }
+
+    private record Entry(CachedResponse response, long generation) {
+    }
+
+    public record Key(String path, Map<String, Object> parameters, Long userId) {
+    }
+
+    public record CachedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body, long validatedAt) {
+        public CachedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+            this(status, headers, body, System.nanoTime());
+        }
+
+        public String eTag() {
+            return headers.getETag();
+        }
+
+        public CachedResponse revalidated() {
+            return new CachedResponse(status, headers, body);
+        }
+    }
+}
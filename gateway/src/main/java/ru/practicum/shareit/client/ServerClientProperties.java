@@ -0,0 +1,25 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * response-timeout совпадает с resilience4j.timelimiter: ответ, не пришедший вовремя, обрывается
+ * тем, кто сработает первым, и клиент в обоих случаях получает 504.
+ */
+@Getter
+@Setter
+@ConfigurationProperties("shareit-server")
+public class ServerClientProperties {
+    private String url;
+    private int maxConnections = 500;
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+    private Duration maxLifeTime = Duration.ofMinutes(5);
+    private Duration evictionInterval = Duration.ofSeconds(30);
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration responseTimeout = Duration.ofSeconds(5);
+}
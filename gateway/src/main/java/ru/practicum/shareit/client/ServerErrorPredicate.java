@@ -0,0 +1,15 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.ResponseEntity;
+
+import java.util.function.Predicate;
+
+/**
+ * Ответы сервера с кодом 5xx автомат отключения считает ошибками, хотя клиенту они передаются как есть.
+ */
+public class ServerErrorPredicate implements Predicate<Object> {
+    @Override
+    public boolean test(Object result) {
+        return result instanceof ResponseEntity<?> response && response.getStatusCode().is5xxServerError();
+    }
+}
@@ -0,0 +1,106 @@
+package ru.practicum.shareit.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.timelimiter.TimeLimiterOperator;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Изолирует маршруты сервера (booking, item, user, request) друг от друга. У каждого маршрута свой
+ * ограничитель времени ответа, автомат отключения и лимит одновременных запросов: медленные бронирования
+ * не занимают соединения поиска вещей. Настройки экземпляров - в resilience4j.* свойствах.
+ */
+@Slf4j
+@Component
+public class ServerRouteGuard {
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final BulkheadRegistry bulkheads;
+    private final TimeLimiterRegistry timeLimiters;
+
+    public ServerRouteGuard(CircuitBreakerRegistry circuitBreakers, BulkheadRegistry bulkheads,
+                            TimeLimiterRegistry timeLimiters) {
+        this.circuitBreakers = circuitBreakers;
+        this.bulkheads = bulkheads;
+        this.timeLimiters = timeLimiters;
+    }
+
+    public Route route(String name) {
+        CircuitBreaker circuitBreaker = circuitBreakers.circuitBreaker(name);
+        circuitBreaker.getEventPublisher().onStateTransition(event ->
+                log.warn("Маршрут {}: {}", name, event.getStateTransition()));
+        return new Route(circuitBreaker, bulkheads.bulkhead(name), timeLimiters.timeLimiter(name));
+    }
+
+    /**
+     * Запрос, не дождавшийся места в лимите, отклоняется сразу и не учитывается автоматом отключения.
+     */
+    public record Route(CircuitBreaker circuitBreaker, Bulkhead bulkhead, TimeLimiter timeLimiter) {
+        public <T> Mono<T> guard(Mono<T> call) {
+            return call.transformDeferred(TimeLimiterOperator.of(timeLimiter))
+                    .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                    .transformDeferred(BulkheadOperator.of(bulkhead));
+        }
+
+        /**
+         * Для ответов, тело которых передаётся клиенту уже после заголовков: место в лимите занято, а срок
+         * ответа идёт, пока тело не дочитано, не оборвалось ошибкой или не отменено. Не дочитанное к сроку тело
+         * обрывается с TimeoutException; если тело так и не начали читать, место освобождается по сроку.
+         * Автомат отключения, как и раньше, оценивает ответ по заголовкам.
+         */
+        public <T> Mono<ResponseEntity<Flux<T>>> guardStreaming(Mono<ResponseEntity<Flux<T>>> call) {
+            return Mono.defer(() -> {
+                if (!bulkhead.tryAcquirePermission()) {
+                    return Mono.error(BulkheadFullException.createBulkheadFullException(bulkhead));
+                }
+                long deadline = System.nanoTime() + timeLimiter.getTimeLimiterConfig().getTimeoutDuration().toNanos();
+                AtomicBoolean released = new AtomicBoolean();
+                AtomicBoolean responded = new AtomicBoolean();
+                Disposable expiry = untilDeadline(deadline).subscribe(tick -> release(released));
+                Runnable finish = () -> {
+                    expiry.dispose();
+                    release(released);
+                };
+                return call.transformDeferred(TimeLimiterOperator.of(timeLimiter))
+                        .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                        .map(response -> {
+                            responded.set(true);
+                            Flux<T> body = response.getBody() != null ? response.getBody() : Flux.empty();
+                            return ResponseEntity.status(response.getStatusCode())
+                                    .headers(response.getHeaders())
+                                    .body(body.timeout(untilDeadline(deadline), item -> untilDeadline(deadline))
+                                            .doFinally(signal -> finish.run()));
+                        })
+                        .doFinally(signal -> {
+                            if (!responded.get()) {
+                                finish.run();
+                            }
+                        });
+            });
+        }
+
+        private void release(AtomicBoolean released) {
+            if (released.compareAndSet(false, true)) {
+                bulkhead.onComplete();
+            }
+        }
+
+        private static Mono<Long> untilDeadline(long deadline) {
+            return Mono.defer(() -> Mono.delay(Duration.ofNanos(Math.max(0, deadline - System.nanoTime()))));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ResponseCache.CachedResponse;
+import ru.practicum.shareit.client.ResponseCache.Key;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Объединяет одновременные одинаковые GET-запросы к серверу в один: первый запрос уходит на сервер,
+ * остальные с тем же ключом ждут его ответ. К запросу старше max-age новые не присоединяются,
+ * а при max-flights одновременных запросах объединение отключается.
+ * Запрос, начатый до изменения данных, узнаётся по поколению ключа в {@link ResponseCache}:
+ * запросы с более новым поколением к нему не присоединяются, а уходят на сервер сами.
+ */
+@Component
+public class SingleFlight {
+    private final Map<Key, Flight> flights = new ConcurrentHashMap<>();
+    private final int maxFlights;
+    private final long maxAgeNanos;
+    private final Counter leaders;
+    private final Counter followers;
+    private final Counter bypassed;
+
+    public SingleFlight(@Value("${shareit-gateway.single-flight.max-flights:1000}") int maxFlights,
+                        @Value("${shareit-gateway.single-flight.max-age:2s}") Duration maxAge,
+                        MeterRegistry meterRegistry) {
+        this.maxFlights = maxFlights;
+        this.maxAgeNanos = maxAge.toNanos();
+        leaders = requests(meterRegistry, "leader");
+        followers = requests(meterRegistry, "follower");
+        bypassed = requests(meterRegistry, "bypassed");
+        Gauge.builder("gateway.single-flight.in-flight", flights, Map::size)
+                .description("Запросы к серверу, ответ на которые ждут несколько клиентов")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param generation значение {@link ResponseCache#generation(Key)} на момент вызова
+     */
+    public Mono<CachedResponse> execute(Key key, long generation, Supplier<Mono<CachedResponse>> call) {
+        return Mono.defer(() -> {
+            Flight current = flights.get(key);
+            if (current != null && current.isJoinable(generation)) {
+                followers.increment();
+                return current.response;
+            }
+            if (current == null && flights.size() >= maxFlights) {
+                bypassed.increment();
+                return call.get();
+            }
+            Flight candidate = new Flight(key, generation, call.get());
+            Flight flight = flights.compute(key, (k, existing) ->
+                    existing != null && existing.isJoinable(generation) ? existing : candidate);
+            (flight == candidate ? leaders : followers).increment();
+            return flight.response;
+        });
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String role) {
+        return Counter.builder("gateway.single-flight.requests")
+                .description("GET-запросы шлюза по роли в объединении")
+                .tag("role", role)
+                .register(meterRegistry);
+    }
+
+    private final class Flight {
+        private final long startedAt = System.nanoTime();
+        private final long generation;
+        private final Mono<CachedResponse> response;
+
+        Flight(Key key, long generation, Mono<CachedResponse> call) {
+            this.generation = generation;
+            response = call.doFinally(signal -> flights.remove(key, this)).cache();
+        }
+
+        boolean isJoinable(long generation) {
+            return this.generation == generation && System.nanoTime() - startedAt < maxAgeNanos;
+        }
+    }
+}
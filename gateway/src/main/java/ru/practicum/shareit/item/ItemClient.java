@@ -1,52 +1,55 @@
 package ru.practicum.shareit.item;
 
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerRouteGuard;
+import ru.practicum.shareit.client.SingleFlight;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemSaveDto;
 
+import java.util.Map;
+
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
-    @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
-        );
+    public ItemClient(WebClient serverWebClient, ResponseCache responseCache, SingleFlight singleFlight,
+                      ServerRouteGuard routeGuard) {
+        super(serverWebClient, responseCache, singleFlight, routeGuard.route("item"), API_PREFIX, API_PREFIX, "/requests");
     }
 
-    public ResponseEntity<Object> createItem(int userId, ItemSaveDto item) {
+    public Mono<ResponseEntity<StreamingResponseBody>> createItem(int userId, ItemSaveDto item) {
         return post("", userId, item);
     }
 
-    public ResponseEntity<Object> updateItem(int userId, int itemId, ItemDto item) {
+    public Mono<ResponseEntity<StreamingResponseBody>> updateItem(int userId, int itemId, ItemDto item) {
         return patch("/" + itemId, userId, item);
     }
 
-    public ResponseEntity<Object> getItemById(int userId, int itemId) {
-        return get("/" + itemId, userId);
+    public Mono<ResponseEntity<StreamingResponseBody>> getItemById(int userId, int itemId) {
+        return getCachedForAnyUser("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> getAllItems(int userId) {
-        return get("/", userId);
+    public Mono<ResponseEntity<StreamingResponseBody>> getAllItems(int userId) {
+        return get("", userId);
     }
 
-    public ResponseEntity<Object> searchItem(String text) {
-        return get("/search" + text);
+    public Mono<ResponseEntity<StreamingResponseBody>> searchItem(String text, int from, int size) {
+        Map<String, Object> parameters = Map.of(
+                "text", text,
+                "from", from,
+                "size", size
+        );
+        return getCached("/search?text={text}&from={from}&size={size}", null, parameters);
     }
 
-    public ResponseEntity<Object> addComment(int userId, int itemId, CommentDto comment) {
+    public Mono<ResponseEntity<StreamingResponseBody>> addComment(int userId, int itemId, CommentDto comment) {
         return post("/" + itemId + "/comment", userId, comment);
     }
 }
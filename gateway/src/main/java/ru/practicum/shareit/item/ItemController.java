@@ -1,12 +1,16 @@
 package ru.practicum.shareit.item;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemSaveDto;
@@ -20,37 +24,41 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @PostMapping
-    public ResponseEntity<Object> createItem(@RequestHeader("X-Sharer-User-Id") int userId,
-                                             @RequestBody @Valid ItemSaveDto item) {
+    public Mono<ResponseEntity<StreamingResponseBody>> createItem(@RequestHeader("X-Sharer-User-Id") int userId,
+                                                                  @RequestBody @Valid ItemSaveDto item) {
         log.info("Creating item {}, userId={}", item, userId);
         return itemClient.createItem(userId, item);
     }
 
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> updateItem(@RequestHeader("X-Sharer-User-Id") int userId,
-                                             @PathVariable("itemId") int itemId,
-                                             @RequestBody ItemDto item) {
+    public Mono<ResponseEntity<StreamingResponseBody>> updateItem(@RequestHeader("X-Sharer-User-Id") int userId,
+                                                                  @PathVariable("itemId") int itemId,
+                                                                  @RequestBody ItemDto item) {
         return itemClient.updateItem(userId, itemId, item);
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItemById(@RequestHeader("X-Sharer-User-Id") int userId, @PathVariable int itemId) {
+    public Mono<ResponseEntity<StreamingResponseBody>> getItemById(@RequestHeader("X-Sharer-User-Id") int userId, @PathVariable int itemId) {
         return itemClient.getItemById(userId, itemId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllItems(@RequestHeader("X-Sharer-User-Id") int userId) {
+    public Mono<ResponseEntity<StreamingResponseBody>> getAllItems(@RequestHeader("X-Sharer-User-Id") int userId) {
         return itemClient.getAllItems(userId);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItem(@RequestParam String text) {
-        return itemClient.searchItem(text);
+    public Mono<ResponseEntity<StreamingResponseBody>> searchItem(
+            @RequestParam String text,
+            @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+            @Positive @RequestParam(defaultValue = "10") int size) {
+        return itemClient.searchItem(text, from, size);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> addComment(@RequestHeader("X-Sharer-User-Id") int userId, @PathVariable("itemId") int itemId,
-                                             @RequestBody @Valid CommentDto comment) {
+    public Mono<ResponseEntity<StreamingResponseBody>> addComment(
+            @RequestHeader("X-Sharer-User-Id") int userId, @PathVariable("itemId") int itemId,
+            @RequestBody @Valid CommentDto comment) {
         return itemClient.addComment(userId, itemId, comment);
     }
 }
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpMethod;
+
+/**
+ * Группа эндпоинтов шлюза с общей квотой запросов.
+ */
+public enum EndpointClass {
+    SEARCH,
+    BOOKING_LIST,
+    READ,
+    WRITE;
+
+    public static EndpointClass of(HttpServletRequest request) {
+        if (!HttpMethod.GET.matches(request.getMethod())) {
+            return WRITE;
+        }
+        String path = request.getRequestURI();
+        if (path.startsWith("/items/search")) {
+            return SEARCH;
+        }
+        if (path.equals("/bookings") || path.equals("/bookings/owner")) {
+            return BOOKING_LIST;
+        }
+        return READ;
+    }
+}
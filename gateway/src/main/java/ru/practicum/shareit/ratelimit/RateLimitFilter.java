@@ -0,0 +1,122 @@
+package ru.practicum.shareit.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.NumberUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.practicum.shareit.exception.ErrorResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ограничивает частоту запросов каждого пользователя (X-Sharer-User-Id, без заголовка - адрес клиента)
+ * отдельно по каждой группе эндпоинтов. Сверх квоты шлюз отвечает 429 с Retry-After, не обращаясь к серверу.
+ * Корзины хранятся в Caffeine и удаляются после idle-timeout без запросов.
+ * Заголовок разбирается в число так же, как при привязке к параметру контроллера, поэтому "1", "01" и " 1"
+ * попадают в одну корзину, а на нечисловое значение шлюз сразу отвечает 400 и корзину не заводит.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    private final RateLimitProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Cache<BucketKey, TokenBucket> buckets;
+    private final Map<EndpointClass, Counter> allowed = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Counter> rejected = new EnumMap<>(EndpointClass.class);
+
+    public RateLimitFilter(RateLimitProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumBuckets())
+                .expireAfterAccess(properties.getIdleTimeout())
+                .build();
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            allowed.put(endpointClass, requests(meterRegistry, endpointClass, "allowed"));
+            rejected.put(endpointClass, requests(meterRegistry, endpointClass, "rejected"));
+        }
+        Gauge.builder("gateway.rate-limit.buckets", buckets, Cache::estimatedSize)
+                .description("Корзины токенов, по одной на пользователя и группу эндпоинтов")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        EndpointClass endpointClass = EndpointClass.of(request);
+        RateLimitProperties.Quota quota = properties.getQuotas().get(endpointClass);
+        if (quota == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        String userId = request.getHeader(USER_ID_HEADER);
+        String client;
+        if (userId == null) {
+            client = "address:" + request.getRemoteAddr();
+        } else {
+            try {
+                client = "user:" + NumberUtils.parseNumber(userId, Long.class);
+            } catch (IllegalArgumentException e) {
+                writeError(response, HttpStatus.BAD_REQUEST, "Некорректный заголовок " + USER_ID_HEADER + ": " + userId);
+                return;
+            }
+        }
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(new BucketKey(client, endpointClass), key -> new TokenBucket(quota, now));
+        long waitNanos = bucket.tryAcquire(now);
+        if (waitNanos == 0) {
+            allowed.get(endpointClass).increment();
+            chain.doFilter(request, response);
+            return;
+        }
+        rejected.get(endpointClass).increment();
+        log.debug("Превышена квота {} клиентом {}", endpointClass, client);
+        long retryAfter = Math.max(1, (long) Math.ceil((double) waitNanos / TimeUnit.SECONDS.toNanos(1)));
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        writeError(response, HttpStatus.TOO_MANY_REQUESTS, "Слишком много запросов, повторите через " + retryAfter + " с");
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(message));
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, EndpointClass endpointClass, String result) {
+        return Counter.builder("gateway.rate-limit.requests")
+                .description("Запросы к шлюзу по группе эндпоинтов и решению ограничителя")
+                .tag("endpoint", endpointClass.name().toLowerCase())
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record BucketKey(String client, EndpointClass endpointClass) {
+    }
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties("shareit-gateway.rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+    private long maximumBuckets = 100_000;
+    private Duration idleTimeout = Duration.ofMinutes(10);
+    private Map<EndpointClass, Quota> quotas = new EnumMap<>(Map.of(
+            EndpointClass.SEARCH, new Quota(20, 10),
+            EndpointClass.BOOKING_LIST, new Quota(20, 10),
+            EndpointClass.READ, new Quota(100, 50),
+            EndpointClass.WRITE, new Quota(20, 5)));
+
+    /**
+     * capacity - сколько запросов можно сделать подряд, refill-per-second - сколько восстанавливается за секунду.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Quota {
+        private int capacity;
+        private double refillPerSecond;
+    }
+}
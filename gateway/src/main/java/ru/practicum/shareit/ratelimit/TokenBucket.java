@@ -0,0 +1,40 @@
+package ru.practicum.shareit.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Корзина токенов без блокировок: состояние заменяется целиком через compareAndSet,
+ * токены доливаются лениво при обращении.
+ */
+class TokenBucket {
+    private final double capacity;
+    private final double refillPerNano;
+    private final AtomicReference<State> state;
+
+    TokenBucket(RateLimitProperties.Quota quota, long now) {
+        capacity = quota.getCapacity();
+        refillPerNano = quota.getRefillPerSecond() / TimeUnit.SECONDS.toNanos(1);
+        state = new AtomicReference<>(new State(capacity, now));
+    }
+
+    /**
+     * @return 0, если токен выдан, иначе через сколько наносекунд появится следующий токен
+     */
+    long tryAcquire(long now) {
+        while (true) {
+            State current = state.get();
+            long elapsed = Math.max(0, now - current.updatedAt());
+            double tokens = Math.min(capacity, current.tokens() + elapsed * refillPerNano);
+            if (tokens < 1) {
+                return (long) Math.ceil((1 - tokens) / refillPerNano);
+            }
+            if (state.compareAndSet(current, new State(tokens - 1, Math.max(now, current.updatedAt())))) {
+                return 0;
+            }
+        }
+    }
+
+    private record State(double tokens, long updatedAt) {
+    }
+}
@@ -1,41 +1,47 @@
 package ru.practicum.shareit.request;
 
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerRouteGuard;
+import ru.practicum.shareit.client.SingleFlight;
+
+import java.util.HashMap;
+import java.util.Map;
 
 @Service
 public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
-    @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
-        );
+    public ItemRequestClient(WebClient serverWebClient, ResponseCache responseCache, SingleFlight singleFlight,
+                             ServerRouteGuard routeGuard) {
+        super(serverWebClient, responseCache, singleFlight, routeGuard.route("request"), API_PREFIX, API_PREFIX);
     }
 
-    public ResponseEntity<Object> create(int userId, ItemRequestDto itemRequestDto) {
+    public Mono<ResponseEntity<StreamingResponseBody>> create(int userId, ItemRequestDto itemRequestDto) {
         return post("", userId, itemRequestDto);
     }
 
-    public ResponseEntity<Object> getAllRequestsByUser(int userId) {
-        return get("", userId);
+    public Mono<ResponseEntity<StreamingResponseBody>> getAllRequestsByUser(int userId) {
+        return getCached("", userId);
     }
 
-    public ResponseEntity<Object> getAllRequests(int userId) {
-        return get("/all", userId);
+    public Mono<ResponseEntity<StreamingResponseBody>> getAllRequests(int userId, int from, int size, String cursor) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("from", from);
+        parameters.put("size", size);
+        if (cursor == null) {
+            return getCached("/all?from={from}&size={size}", (long) userId, parameters);
+        }
+        parameters.put("cursor", cursor);
+        return getCached("/all?from={from}&size={size}&cursor={cursor}", (long) userId, parameters);
     }
 
-    public ResponseEntity<Object> getRequestById(int requestId) {
-        return get("/" + requestId);
+    public Mono<ResponseEntity<StreamingResponseBody>> getRequestById(int requestId) {
+        return getCached("/" + requestId);
     }
 }
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.request;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -8,6 +9,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
 
 @Controller
 @RequestMapping(path = "/requests")
@@ -18,23 +21,28 @@ public class ItemRequestController {
     private final ItemRequestClient requestClient;
 
     @PostMapping
-    public ResponseEntity<Object> create(@RequestHeader("X-Sharer-User-Id") int userId,
-                                         @RequestBody @Valid ItemRequestDto itemRequestDto) {
+    public Mono<ResponseEntity<StreamingResponseBody>> create(@RequestHeader("X-Sharer-User-Id") int userId,
+                                                              @RequestBody @Valid ItemRequestDto itemRequestDto) {
         return requestClient.create(userId, itemRequestDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllRequestsByUser(@RequestHeader("X-Sharer-User-Id") int userId) {
+    public Mono<ResponseEntity<StreamingResponseBody>> getAllRequestsByUser(@RequestHeader("X-Sharer-User-Id") int userId) {
         return requestClient.getAllRequestsByUser(userId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllRequests(@RequestHeader("X-Sharer-User-Id") int userId) {
-        return requestClient.getAllRequests(userId);
+    public Mono<ResponseEntity<StreamingResponseBody>> getAllRequests(
+            @RequestHeader("X-Sharer-User-Id") int userId,
+            @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+            @Positive @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor) {
+        log.info("Get all requests, userId={}, from={}, size={}", userId, from, size);
+        return requestClient.getAllRequests(userId, from, size, cursor);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getRequestById(@PathVariable @PositiveOrZero int requestId) {
+    public Mono<ResponseEntity<StreamingResponseBody>> getRequestById(@PathVariable @PositiveOrZero int requestId) {
         return requestClient.getRequestById(requestId);
     }
 }
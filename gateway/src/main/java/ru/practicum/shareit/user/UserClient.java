@@ -1,45 +1,41 @@
 package ru.practicum.shareit.user;
 
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerRouteGuard;
+import ru.practicum.shareit.client.SingleFlight;
 
 @Service
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
-    @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
-        );
+    public UserClient(WebClient serverWebClient, ResponseCache responseCache, SingleFlight singleFlight,
+                      ServerRouteGuard routeGuard) {
+        super(serverWebClient, responseCache, singleFlight, routeGuard.route("user"), API_PREFIX, "/");
     }
 
-    public ResponseEntity<Object> getUsers() {
-        return get("");
+    public Mono<ResponseEntity<StreamingResponseBody>> getUsers() {
+        return getCached("");
     }
 
-    public ResponseEntity<Object> getUserById(long userId) {
-        return get("/" + userId);
+    public Mono<ResponseEntity<StreamingResponseBody>> getUserById(long userId) {
+        return getCached("/" + userId);
     }
 
-    public ResponseEntity<Object> createUser(UserDto user) {
+    public Mono<ResponseEntity<StreamingResponseBody>> createUser(UserDto user) {
         return post("", user);
     }
 
-    public ResponseEntity<Object> updateUser(long userId, UserDto user) {
+    public Mono<ResponseEntity<StreamingResponseBody>> updateUser(long userId, UserDto user) {
         return patch("/" + userId, user);
     }
 
-    public void deleteUser(long userId) {
-        delete("/" + userId);
+    public Mono<ResponseEntity<StreamingResponseBody>> deleteUser(long userId) {
+        return delete("/" + userId);
     }
 }
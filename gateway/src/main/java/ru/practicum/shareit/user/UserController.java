@@ -3,11 +3,12 @@ package ru.practicum.shareit.user;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
 
 @Controller
 @RequestMapping(path = "/users")
@@ -18,28 +19,27 @@ public class UserController {
     private final UserClient userClient;
 
     @GetMapping
-    public ResponseEntity<Object> getUsers() {
+    public Mono<ResponseEntity<StreamingResponseBody>> getUsers() {
         return userClient.getUsers();
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> getUserById(@PathVariable long userId) {
+    public Mono<ResponseEntity<StreamingResponseBody>> getUserById(@PathVariable long userId) {
         return userClient.getUserById(userId);
     }
 
     @PostMapping
-    public ResponseEntity<Object> createUser(@Valid @RequestBody UserDto user) {
+    public Mono<ResponseEntity<StreamingResponseBody>> createUser(@Valid @RequestBody UserDto user) {
         return userClient.createUser(user);
     }
 
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> updateUser(@PathVariable long userId, @RequestBody UserDto user) {
+    public Mono<ResponseEntity<StreamingResponseBody>> updateUser(@PathVariable long userId, @RequestBody UserDto user) {
         return userClient.updateUser(userId, user);
     }
 
     @DeleteMapping("/{userId}")
-    public ResponseEntity<Object> deleteUser(@PathVariable long userId) {
-        userClient.deleteUser(userId);
-        return new ResponseEntity<Object>(HttpStatus.OK);
+    public Mono<ResponseEntity<StreamingResponseBody>> deleteUser(@PathVariable long userId) {
+        return userClient.deleteUser(userId);
     }
 }
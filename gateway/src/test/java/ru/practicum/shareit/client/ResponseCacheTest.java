@@ -0,0 +1,120 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import ru.practicum.shareit.client.ResponseCache.CachedResponse;
+import ru.practicum.shareit.client.ResponseCache.Key;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class ResponseCacheTest {
+    private final Key item = new Key("/items/1", Map.of(), 1L);
+    private final Key search = new Key("/items/search?text={text}", Map.of("text", "дрель"), null);
+    private final Key user = new Key("/users/1", Map.of(), null);
+
+    private ResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ResponseCache(100, Duration.ofMinutes(10), Duration.ofMinutes(1), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void putAndGetTest() {
+        CachedResponse response = response("\"1\"");
+
+        cache.put(item, response, cache.generation(item));
+
+        assertThat(cache.get(item), sameInstance(response));
+        assertThat(cache.isFresh(response), equalTo(true));
+    }
+
+    @Test
+    void invalidatePrefixTest() {
+        cache.put(item, response("\"1\""), cache.generation(item));
+        cache.put(search, response("\"2\""), cache.generation(search));
+        cache.put(user, response("\"3\""), cache.generation(user));
+
+        cache.invalidate(List.of("/items"));
+
+        assertThat(cache.get(item), nullValue());
+        assertThat(cache.get(search), nullValue());
+        assertThat(cache.get(user), not(nullValue()));
+    }
+
+    @Test
+    void invalidateRootPrefixTest() {
+        cache.put(item, response("\"1\""), cache.generation(item));
+        cache.put(user, response("\"3\""), cache.generation(user));
+
+        cache.invalidate(List.of("/"));
+
+        assertThat(cache.get(item), nullValue());
+        assertThat(cache.get(user), nullValue());
+    }
+
+    @Test
+    void putAfterInvalidationTest() {
+        long generation = cache.generation(item);
+
+        cache.invalidate(List.of("/items"));
+        cache.put(item, response("\"1\""), generation);
+
+        assertThat(cache.get(item), nullValue());
+    }
+
+    @Test
+    void putAfterOtherPrefixInvalidationTest() {
+        long generation = cache.generation(item);
+
+        cache.invalidate(List.of("/users", "/requests"));
+        cache.put(item, response("\"1\""), generation);
+
+        assertThat(cache.get(item), not(nullValue()));
+    }
+
+    @Test
+    void putAfterRepeatedInvalidationTest() {
+        cache.invalidate(List.of("/items"));
+        long generation = cache.generation(item);
+        cache.put(item, response("\"1\""), generation);
+
+        cache.invalidate(List.of("/items"));
+        CachedResponse response = response("\"2\"");
+        cache.put(item, response, cache.generation(item));
+
+        assertThat(cache.get(item), sameInstance(response));
+    }
+
+    @Test
+    void revalidatedTest() {
+        CachedResponse response = new CachedResponse(HttpStatus.OK, headers("\"1\""), new byte[0], 0);
+
+        CachedResponse revalidated = response.revalidated();
+
+        assertThat(cache.isFresh(response), equalTo(false));
+        assertThat(cache.isFresh(revalidated), equalTo(true));
+        assertThat(revalidated.eTag(), equalTo("\"1\""));
+    }
+
+    private static CachedResponse response(String eTag) {
+        return new CachedResponse(HttpStatus.OK, headers(eTag), new byte[0]);
+    }
+
+    private static HttpHeaders headers(String eTag) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(eTag);
+        return headers;
+    }
+}
@@ -0,0 +1,134 @@
+package ru.practicum.shareit.client;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ServerRouteGuardTest {
+    private static final int WINDOW = 4;
+
+    private ServerRouteGuard.Route route;
+
+    @BeforeEach
+    void setUp() {
+        ServerRouteGuard routeGuard = new ServerRouteGuard(
+                CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                        .slidingWindowSize(WINDOW)
+                        .minimumNumberOfCalls(WINDOW)
+                        .failureRateThreshold(50)
+                        .recordResult(new ServerErrorPredicate())
+                        .build()),
+                BulkheadRegistry.of(BulkheadConfig.custom()
+                        .maxConcurrentCalls(1)
+                        .maxWaitDuration(Duration.ZERO)
+                        .build()),
+                TimeLimiterRegistry.of(TimeLimiterConfig.custom()
+                        .timeoutDuration(Duration.ofMillis(100))
+                        .build()));
+        route = routeGuard.route("item");
+    }
+
+    @Test
+    void breakerOpensOnServerErrorsTest() {
+        for (int i = 0; i < WINDOW; i++) {
+            route.guard(Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build())).block();
+        }
+
+        assertThat(route.circuitBreaker().getState(), equalTo(CircuitBreaker.State.OPEN));
+        assertThat(failure(route.guard(Mono.just(ResponseEntity.ok().build()))),
+                instanceOf(CallNotPermittedException.class));
+    }
+
+    @Test
+    void breakerStaysClosedOnClientErrorsTest() {
+        for (int i = 0; i < WINDOW; i++) {
+            route.guard(Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).build())).block();
+        }
+
+        assertThat(route.circuitBreaker().getState(), equalTo(CircuitBreaker.State.CLOSED));
+    }
+
+    @Test
+    void bulkheadFullTest() {
+        Disposable pending = route.guard(Mono.never()).subscribe();
+        try {
+            assertThat(failure(route.guard(Mono.just(ResponseEntity.ok().build()))),
+                    instanceOf(BulkheadFullException.class));
+            assertThat(route.circuitBreaker().getMetrics().getNumberOfBufferedCalls(), equalTo(0));
+        } finally {
+            pending.dispose();
+        }
+    }
+
+    @Test
+    void timeLimiterTest() {
+        assertThat(failure(route.guard(Mono.never())), instanceOf(TimeoutException.class));
+        assertThat(route.circuitBreaker().getMetrics().getNumberOfFailedCalls(), equalTo(1));
+    }
+
+    @Test
+    void bulkheadHeldUntilBodyReadTest() {
+        Sinks.Many<String> body = Sinks.many().unicast().onBackpressureBuffer();
+        ResponseEntity<Flux<String>> response = route.guardStreaming(Mono.just(ResponseEntity.ok(body.asFlux())))
+                .block();
+
+        assertThat(failure(route.guardStreaming(Mono.just(ResponseEntity.ok(Flux.<String>empty())))),
+                instanceOf(BulkheadFullException.class));
+
+        CompletableFuture<List<String>> read = response.getBody().collectList().toFuture();
+        body.tryEmitNext("body");
+        body.tryEmitComplete();
+
+        assertThat(read.join(), equalTo(List.of("body")));
+        assertThat(route.bulkhead().getMetrics().getAvailableConcurrentCalls(), equalTo(1));
+    }
+
+    @Test
+    void slowBodyTimesOutTest() {
+        ResponseEntity<Flux<String>> response = route.guardStreaming(
+                Mono.just(ResponseEntity.ok(Flux.just("first").concatWith(Flux.never())))).block();
+
+        assertThat(failure(response.getBody().then()), instanceOf(TimeoutException.class));
+        assertThat(route.bulkhead().getMetrics().getAvailableConcurrentCalls(), equalTo(1));
+    }
+
+    @Test
+    void unreadBodyReleasedAtDeadlineTest() {
+        route.guardStreaming(Mono.just(ResponseEntity.ok(Flux.<String>never()))).block();
+
+        assertThat(route.bulkhead().getMetrics().getAvailableConcurrentCalls(), equalTo(0));
+        assertThat(Mono.delay(Duration.ofMillis(300))
+                        .map(tick -> route.bulkhead().getMetrics().getAvailableConcurrentCalls())
+                        .block(),
+                equalTo(1));
+    }
+
+    private static Throwable failure(Mono<?> call) {
+        return assertThrows(CompletionException.class, () -> call.toFuture().join()).getCause();
+    }
+}
@@ -0,0 +1,107 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import ru.practicum.shareit.client.ResponseCache.CachedResponse;
+import ru.practicum.shareit.client.ResponseCache.Key;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class SingleFlightTest {
+    private final Key key = new Key("/items/1", Map.of(), 1L);
+    private final Key otherKey = new Key("/items/2", Map.of(), 1L);
+    private final CachedResponse response = new CachedResponse(HttpStatus.OK, new HttpHeaders(), new byte[0]);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Sinks.One<CachedResponse> server = Sinks.one();
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    void followersShareLeaderResponseTest() {
+        SingleFlight singleFlight = new SingleFlight(10, Duration.ofMinutes(1), meterRegistry);
+
+        List<CompletableFuture<CachedResponse>> responses = IntStream.range(0, 3)
+                .mapToObj(i -> singleFlight.execute(key, 0, this::call).toFuture())
+                .toList();
+        server.tryEmitValue(response);
+
+        assertThat(calls.get(), equalTo(1));
+        assertThat(responses.stream().map(CompletableFuture::join).toList(), everyItem(sameInstance(response)));
+        assertThat(requests("leader"), equalTo(1.0));
+        assertThat(requests("follower"), equalTo(2.0));
+    }
+
+    @Test
+    void finishedFlightIsForgottenTest() {
+        SingleFlight singleFlight = new SingleFlight(10, Duration.ofMinutes(1), meterRegistry);
+        server.tryEmitValue(response);
+
+        singleFlight.execute(key, 0, this::call).block();
+        singleFlight.execute(key, 0, this::call).block();
+
+        assertThat(calls.get(), equalTo(2));
+        assertThat(requests("leader"), equalTo(2.0));
+    }
+
+    @Test
+    void maxAgeTest() {
+        SingleFlight singleFlight = new SingleFlight(10, Duration.ZERO, meterRegistry);
+
+        singleFlight.execute(key, 0, this::call).subscribe();
+        singleFlight.execute(key, 0, this::call).subscribe();
+
+        assertThat(calls.get(), equalTo(2));
+        assertThat(requests("leader"), equalTo(2.0));
+        assertThat(requests("follower"), equalTo(0.0));
+    }
+
+    @Test
+    void maxFlightsTest() {
+        SingleFlight singleFlight = new SingleFlight(1, Duration.ofMinutes(1), meterRegistry);
+
+        singleFlight.execute(key, 0, this::call).subscribe();
+        singleFlight.execute(otherKey, 0, this::call).subscribe();
+        singleFlight.execute(key, 0, this::call).subscribe();
+
+        assertThat(calls.get(), equalTo(2));
+        assertThat(requests("leader"), equalTo(1.0));
+        assertThat(requests("bypassed"), equalTo(1.0));
+        assertThat(requests("follower"), equalTo(1.0));
+    }
+
+    @Test
+    void newGenerationDoesNotJoinTest() {
+        SingleFlight singleFlight = new SingleFlight(10, Duration.ofMinutes(1), meterRegistry);
+
+        singleFlight.execute(key, 0, this::call).subscribe();
+        singleFlight.execute(key, 1, this::call).subscribe();
+        singleFlight.execute(key, 1, this::call).subscribe();
+
+        assertThat(calls.get(), equalTo(2));
+        assertThat(requests("leader"), equalTo(2.0));
+        assertThat(requests("follower"), equalTo(1.0));
+    }
+
+    private Mono<CachedResponse> call() {
+        calls.incrementAndGet();
+        return server.asMono();
+    }
+
+    private double requests(String role) {
+        return meterRegistry.get("gateway.single-flight.requests").tag("role", role).counter().count();
+    }
+}
@@ -0,0 +1,126 @@
+package ru.practicum.shareit.exception;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.netty.handler.timeout.ReadTimeoutException;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ServerRouteGuard;
+
+import java.net.ConnectException;
+import java.net.URI;
+import java.time.Duration;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Ошибки маршрута сервера доходят до клиента через асинхронную обработку Mono так же,
+ * как ответы BaseClient.
+ */
+public class ErrorHandlerTest {
+    private ServerRouteGuard.Route route;
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        route = new ServerRouteGuard(CircuitBreakerRegistry.ofDefaults(),
+                BulkheadRegistry.of(BulkheadConfig.custom()
+                        .maxConcurrentCalls(1)
+                        .maxWaitDuration(Duration.ZERO)
+                        .build()),
+                TimeLimiterRegistry.of(TimeLimiterConfig.custom()
+                        .timeoutDuration(Duration.ofMillis(100))
+                        .build()))
+                .route("item");
+        mvc = MockMvcBuilders.standaloneSetup(new StubController(route))
+                .setControllerAdvice(new ErrorHandler())
+                .build();
+    }
+
+    @Test
+    void circuitBreakerOpenTest() {
+        route.circuitBreaker().transitionToOpenState();
+
+        perform("/never", status().isServiceUnavailable());
+    }
+
+    @Test
+    void bulkheadFullTest() {
+        Disposable pending = route.guard(Mono.never()).subscribe();
+        try {
+            perform("/never", status().isServiceUnavailable());
+        } finally {
+            pending.dispose();
+        }
+    }
+
+    @Test
+    void timeLimiterTest() {
+        perform("/never", status().isGatewayTimeout());
+    }
+
+    @Test
+    void responseTimeoutTest() {
+        perform("/read-timeout", status().isGatewayTimeout());
+    }
+
+    @Test
+    void connectionFailureTest() {
+        perform("/connection-refused", status().isBadGateway());
+    }
+
+    @SneakyThrows
+    private void perform(String path, ResultMatcher status) {
+        MvcResult result = mvc.perform(get(path))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvc.perform(asyncDispatch(result)).andExpect(status);
+    }
+
+    @RestController
+    static class StubController {
+        private final ServerRouteGuard.Route route;
+
+        StubController(ServerRouteGuard.Route route) {
+            this.route = route;
+        }
+
+        @GetMapping("/never")
+        public Mono<String> never() {
+            return route.guard(Mono.never());
+        }
+
+        @GetMapping("/read-timeout")
+        public Mono<String> readTimeout() {
+            return route.guard(Mono.error(requestException(ReadTimeoutException.INSTANCE)));
+        }
+
+        @GetMapping("/connection-refused")
+        public Mono<String> connectionRefused() {
+            return route.guard(Mono.error(requestException(new ConnectException("Connection refused"))));
+        }
+
+        private static WebClientRequestException requestException(Throwable cause) {
+            return new WebClientRequestException(cause, HttpMethod.GET, URI.create("http://localhost:9090/items/1"),
+                    new HttpHeaders());
+        }
+    }
+}
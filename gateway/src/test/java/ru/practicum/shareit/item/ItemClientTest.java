@@ -0,0 +1,76 @@
+package ru.practicum.shareit.item;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerRouteGuard;
+import ru.practicum.shareit.client.SingleFlight;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+public class ItemClientTest {
+    private static final String ITEM = "{\"id\":1,\"name\":\"Дрель\"}";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<String> requestUserIds = new CopyOnWriteArrayList<>();
+
+    private ItemClient client;
+
+    @BeforeEach
+    void setUp() {
+        WebClient webClient = WebClient.builder()
+                .baseUrl("http://localhost:9090")
+                .exchangeFunction(request -> {
+                    requestUserIds.add(request.headers().getFirst("X-Sharer-User-Id"));
+                    return Mono.just(ClientResponse.create(HttpStatus.OK)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .header(HttpHeaders.ETAG, "\"1\"")
+                            .body(ITEM)
+                            .build());
+                })
+                .build();
+        ServerRouteGuard routeGuard = new ServerRouteGuard(CircuitBreakerRegistry.ofDefaults(),
+                BulkheadRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults());
+        client = new ItemClient(webClient,
+                new ResponseCache(100, Duration.ofMinutes(10), Duration.ofMinutes(1), meterRegistry),
+                new SingleFlight(100, Duration.ofMinutes(1), meterRegistry), routeGuard);
+    }
+
+    @Test
+    void getItemByIdSharedBetweenUsersTest() {
+        String first = body(client.getItemById(1, 1).block());
+        String second = body(client.getItemById(2, 1).block());
+
+        assertThat(requestUserIds, equalTo(List.of("1")));
+        assertThat(first, equalTo(ITEM));
+        assertThat(second, equalTo(ITEM));
+    }
+
+    @SneakyThrows
+    private static String body(ResponseEntity<StreamingResponseBody> response) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        response.getBody().writeTo(outputStream);
+        return outputStream.toString(StandardCharsets.UTF_8);
+    }
+}
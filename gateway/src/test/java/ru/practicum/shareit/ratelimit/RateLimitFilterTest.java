@@ -0,0 +1,116 @@
+package ru.practicum.shareit.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class RateLimitFilterTest {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setQuotas(Map.of(
+                EndpointClass.READ, new RateLimitProperties.Quota(2, 0.001),
+                EndpointClass.WRITE, new RateLimitProperties.Quota(1, 0.001)));
+        RateLimitFilter filter = new RateLimitFilter(properties, new ObjectMapper(), new SimpleMeterRegistry());
+        mvc = MockMvcBuilders.standaloneSetup(new StubController())
+                .addFilters(filter)
+                .build();
+    }
+
+    @SneakyThrows
+    @Test
+    void tooManyRequestsTest() {
+        mvc.perform(get("/items/1").header(USER_ID_HEADER, 1)).andExpect(status().isOk());
+        mvc.perform(get("/items/1").header(USER_ID_HEADER, 1)).andExpect(status().isOk());
+
+        mvc.perform(get("/items/1").header(USER_ID_HEADER, 1))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1000"))
+                .andExpect(jsonPath("$.error", startsWith("Слишком много запросов")));
+        mvc.perform(get("/items/1").header(USER_ID_HEADER, 2)).andExpect(status().isOk());
+    }
+
+    @SneakyThrows
+    @Test
+    void endpointClassesHaveSeparateQuotasTest() {
+        mvc.perform(post("/items").header(USER_ID_HEADER, 1)).andExpect(status().isOk());
+        mvc.perform(post("/items").header(USER_ID_HEADER, 1)).andExpect(status().isTooManyRequests());
+
+        mvc.perform(get("/items/1").header(USER_ID_HEADER, 1)).andExpect(status().isOk());
+    }
+
+    @SneakyThrows
+    @Test
+    void sameUserIdSpellingsShareBucketTest() {
+        mvc.perform(get("/items/1").header(USER_ID_HEADER, "1")).andExpect(status().isOk());
+        mvc.perform(get("/items/1").header(USER_ID_HEADER, "01")).andExpect(status().isOk());
+
+        mvc.perform(get("/items/1").header(USER_ID_HEADER, " 1")).andExpect(status().isTooManyRequests());
+    }
+
+    @SneakyThrows
+    @Test
+    void invalidUserIdTest() {
+        mvc.perform(get("/items/1").header(USER_ID_HEADER, "user"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", startsWith("Некорректный заголовок")));
+        mvc.perform(get("/items/1").header(USER_ID_HEADER, "99999999999999999999"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @SneakyThrows
+    @Test
+    void clientWithoutUserIdTest() {
+        mvc.perform(get("/items/1")).andExpect(status().isOk());
+        mvc.perform(get("/items/1")).andExpect(status().isOk());
+
+        mvc.perform(get("/items/1")).andExpect(status().isTooManyRequests());
+        mvc.perform(get("/items/1").with(request -> {
+            request.setRemoteAddr("10.0.0.2");
+            return request;
+        })).andExpect(status().isOk());
+    }
+
+    @SneakyThrows
+    @Test
+    void actuatorIsNotLimitedTest() {
+        for (int i = 0; i < 5; i++) {
+            mvc.perform(get("/actuator/health").header(USER_ID_HEADER, "user")).andExpect(status().isOk());
+        }
+    }
+
+    @RestController
+    static class StubController {
+
+        @GetMapping({"/items/1", "/actuator/health"})
+        public String get() {
+            return "{}";
+        }
+
+        @PostMapping("/items")
+        public String post() {
+            return "{}";
+        }
+    }
+}
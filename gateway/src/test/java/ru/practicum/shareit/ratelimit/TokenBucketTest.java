@@ -0,0 +1,90 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+public class TokenBucketTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void burstTest() {
+        TokenBucket bucket = new TokenBucket(new RateLimitProperties.Quota(3, 1), 0);
+
+        assertThat(bucket.tryAcquire(0), equalTo(0L));
+        assertThat(bucket.tryAcquire(0), equalTo(0L));
+        assertThat(bucket.tryAcquire(0), equalTo(0L));
+        assertThat(bucket.tryAcquire(0), equalTo(SECOND));
+    }
+
+    @Test
+    void refillTest() {
+        TokenBucket bucket = new TokenBucket(new RateLimitProperties.Quota(1, 2), 0);
+        bucket.tryAcquire(0);
+
+        assertThat(bucket.tryAcquire(SECOND / 4), equalTo(SECOND / 4));
+        assertThat(bucket.tryAcquire(SECOND / 2), equalTo(0L));
+        assertThat(bucket.tryAcquire(SECOND / 2), equalTo(SECOND / 2));
+    }
+
+    @Test
+    void refillUpToCapacityTest() {
+        TokenBucket bucket = new TokenBucket(new RateLimitProperties.Quota(2, 10), 0);
+        bucket.tryAcquire(0);
+        bucket.tryAcquire(0);
+
+        long later = 100 * SECOND;
+
+        assertThat(bucket.tryAcquire(later), equalTo(0L));
+        assertThat(bucket.tryAcquire(later), equalTo(0L));
+        assertThat(bucket.tryAcquire(later), equalTo(SECOND / 10));
+    }
+
+    @Test
+    void clockGoingBackTest() {
+        TokenBucket bucket = new TokenBucket(new RateLimitProperties.Quota(1, 1), SECOND);
+        bucket.tryAcquire(SECOND);
+
+        assertThat(bucket.tryAcquire(0), equalTo(SECOND));
+    }
+
+    @Test
+    void concurrentAcquireTest() throws Exception {
+        int capacity = 1000;
+        int threads = 8;
+        TokenBucket bucket = new TokenBucket(new RateLimitProperties.Quota(capacity, 1), 0);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<CompletableFuture<Long>> granted = IntStream.range(0, threads)
+                    .mapToObj(i -> CompletableFuture.supplyAsync(() -> {
+                        await(start);
+                        return IntStream.range(0, capacity).filter(j -> bucket.tryAcquire(0) == 0).count();
+                    }, executor))
+                    .toList();
+            start.countDown();
+
+            assertThat(granted.stream().mapToLong(CompletableFuture::join).sum(), equalTo((long) capacity));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
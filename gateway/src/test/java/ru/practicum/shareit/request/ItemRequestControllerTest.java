@@ -0,0 +1,49 @@
+package ru.practicum.shareit.request;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = ItemRequestController.class)
+@Import(SimpleMeterRegistry.class)
+public class ItemRequestControllerTest {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    @MockBean
+    private ItemRequestClient requestClient;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @SneakyThrows
+    @Test
+    void getAllRequestsWithNegativeFromTest() {
+        mvc.perform(get("/requests/all").header(USER_ID_HEADER, 1).param("from", "-1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").exists());
+
+        verify(requestClient, never()).getAllRequests(anyInt(), anyInt(), anyInt(), any());
+    }
+
+    @SneakyThrows
+    @Test
+    void getAllRequestsWithZeroSizeTest() {
+        mvc.perform(get("/requests/all").header(USER_ID_HEADER, 1).param("size", "0"))
+                .andExpect(status().isBadRequest());
+
+        verify(requestClient, never()).getAllRequests(anyInt(), anyInt(), anyInt(), any());
+    }
+}
@@ -0,0 +1,37 @@
+#!/bin/bash
+# Сравнение виртуальных и платформенных потоков: для каждого режима запускает чистые сервер и шлюз
+# (сервер на встроенной H2, если не задан SPRING_DATASOURCE_URL) и прогоняет одинаковую нагрузку.
+# Параметры нагрузки передаются как аргументы скрипта, например: ./compare-threads.sh duration=60s concurrency=64
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+mvn -B -q -DskipTests package
+mvn -B -q -pl loadtest dependency:build-classpath -Dmdep.outputFile="$PWD/loadtest/target/classpath.txt"
+classpath="loadtest/target/classes:$(cat loadtest/target/classpath.txt)"
+
+wait_for() {
+  for _ in $(seq 1 120); do
+    curl -s -o /dev/null "$1" && return 0
+    sleep 1
+  done
+  echo "Не дождались $1" >&2
+  return 1
+}
+
+for virtual in true false; do
+  SPRING_THREADS_VIRTUAL_ENABLED=$virtual java -jar server/target/shareit-server-*-exec.jar \
+    > "loadtest/target/server-virtual-$virtual.log" 2>&1 &
+  server=$!
+  SPRING_THREADS_VIRTUAL_ENABLED=$virtual SHAREIT_GATEWAY_RATE_LIMIT_ENABLED=false \
+    java -jar gateway/target/shareit-gateway-*-exec.jar > "loadtest/target/gateway-virtual-$virtual.log" 2>&1 &
+  gateway=$!
+  trap 'kill $server $gateway 2>/dev/null' EXIT
+  wait_for localhost:9090/actuator/health
+  wait_for localhost:8080/actuator/health
+
+  java -cp "$classpath" ru.practicum.shareit.loadtest.LoadTest "label=virtual-threads-$virtual" \
+    "out=loadtest/target/load-virtual-$virtual.json" "$@"
+
+  kill $server $gateway
+  wait $server $gateway 2>/dev/null || true
+done
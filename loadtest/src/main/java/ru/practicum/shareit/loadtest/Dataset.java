@@ -0,0 +1,15 @@
+package ru.practicum.shareit.loadtest;
+
+import java.util.List;
+
+/**
+ * Созданные генератором данные. Списки упорядочены по популярности: первые вещи бронируют и ищут чаще,
+ * первые владельцы владеют большей частью вещей.
+ *
+ * @param searchTerms слова из названий вещей, по которым идёт поиск
+ */
+record Dataset(List<Long> users, List<Long> owners, List<Item> items, List<String> searchTerms) {
+
+    record Item(long id, long ownerId) {
+    }
+}
@@ -0,0 +1,221 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.IntFunction;
+
+/**
+ * Создаёт пользователей, вещи, бронирования и отзывы через API сервера. Все выборы делаются генератором
+ * с фиксированным seed, поэтому одинаковые параметры дают одинаковый набор данных: вещи распределены
+ * между владельцами и бронируются по закону Ципфа, прошедшие бронирования подтверждены, часть из них с отзывом.
+ * Сервер должен быть пустым: адреса пользователей зависят только от seed.
+ */
+final class DatasetGenerator {
+    private static final List<String> NOUNS = List.of("дрель", "перфоратор", "шуруповёрт", "лестница", "палатка",
+            "велосипед", "самокат", "проектор", "колонка", "гитара", "байдарка", "мангал", "пылесос", "культиватор",
+            "лобзик", "болгарка", "спальник", "рюкзак", "фотоаппарат", "штатив", "сноуборд", "лыжи", "коньки",
+            "генератор", "компрессор", "бетономешалка", "удочка", "газонокосилка", "тележка", "домкрат");
+    private static final List<String> ADJECTIVES = List.of("аккумуляторная", "профессиональная", "детская",
+            "складная", "туристическая", "электрическая", "бензиновая", "компактная", "новая", "надёжная");
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+    private static final double OWNER_SHARE = 0.2;
+    private static final double PAST_SHARE = 0.6;
+    private static final int APPROVE_ATTEMPTS = 10;
+
+    private final LoadTestConfig config;
+    private final ShareItApi api;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Random random;
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+
+    DatasetGenerator(LoadTestConfig config, ShareItApi api) {
+        this.config = config;
+        this.api = api;
+        this.random = new Random(config.seed());
+    }
+
+    Dataset generate() {
+        List<Long> users = createAll(config.users(), this::userJson, (i, json) ->
+                api.post(config.server(), "/users", null, json));
+        List<Long> owners = users.subList(0, Math.max(1, (int) (users.size() * OWNER_SHARE)));
+
+        Zipf ownerChoice = new Zipf(owners.size(), 1.1);
+        Zipf nounChoice = new Zipf(NOUNS.size(), 1.0);
+        long[] itemOwners = new long[config.items()];
+        String[] itemJson = new String[config.items()];
+        for (int i = 0; i < config.items(); i++) {
+            itemOwners[i] = owners.get(ownerChoice.next(random));
+            String noun = NOUNS.get(nounChoice.next(random));
+            itemJson[i] = json(Map.of(
+                    "name", noun + " " + (i + 1),
+                    "description", ADJECTIVES.get(random.nextInt(ADJECTIVES.size())) + " " + noun,
+                    "available", random.nextDouble() < 0.95));
+        }
+        List<Long> itemIds = createAll(config.items(), i -> itemJson[i], (i, json) ->
+                api.post(config.server(), "/items", itemOwners[i], json));
+        List<Dataset.Item> items = new ArrayList<>();
+        for (int i = 0; i < itemIds.size(); i++) {
+            items.add(new Dataset.Item(itemIds.get(i), itemOwners[i]));
+        }
+
+        createBookings(users, items);
+        return new Dataset(users, owners, items, NOUNS);
+    }
+
+    /**
+     * У каждой вещи прошедшие бронирования идут подряд назад от текущего момента, будущие - вперёд,
+     * поэтому сгенерированные периоды не пересекаются.
+     */
+    private void createBookings(List<Long> users, List<Dataset.Item> items) {
+        Zipf itemChoice = new Zipf(items.size(), 1.0);
+        Map<Long, Integer> pastSlots = new HashMap<>();
+        Map<Long, Integer> futureSlots = new HashMap<>();
+        List<PlannedBooking> planned = new ArrayList<>();
+        for (int i = 0; i < config.bookings(); i++) {
+            Dataset.Item item = items.get(itemChoice.next(random));
+            long booker = users.get(random.nextInt(users.size()));
+            if (booker == item.ownerId()) {
+                booker = users.get((users.indexOf(booker) + 1) % users.size());
+            }
+            boolean past = random.nextDouble() < PAST_SHARE;
+            LocalDateTime start;
+            if (past) {
+                int slot = pastSlots.merge(item.id(), 1, Integer::sum);
+                start = now.minusDays(2L * slot + 1);
+            } else {
+                int slot = futureSlots.merge(item.id(), 1, Integer::sum);
+                start = now.plusDays(2L * slot);
+            }
+            boolean approve = past || random.nextBoolean();
+            boolean comment = past && random.nextDouble() < config.commentShare();
+            planned.add(new PlannedBooking(item, booker, start, approve, comment));
+        }
+
+        runAll(planned.size(), i -> {
+            PlannedBooking booking = planned.get(i);
+            ShareItApi.Response created = api.post(config.server(), "/bookings", booking.booker(), json(Map.of(
+                    "itemId", booking.item().id(),
+                    "start", DATE_TIME.format(booking.start()),
+                    "end", DATE_TIME.format(booking.start().plusDays(1)))));
+            if (!created.isSuccessful()) {
+                // вещь недоступна для бронирования или занята: такие бронирования пропускаются
+                return null;
+            }
+            if (booking.approve()) {
+                approve(id(created), booking.item().ownerId());
+            }
+            if (booking.comment()) {
+                expectSuccess(api.post(config.server(), "/items/" + booking.item().id() + "/comment",
+                        booking.booker(), json(Map.of("text", "Всё отлично, спасибо!"))));
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Подтверждение конкурирует с созданием бронирований той же вещи за версию вещи, поэтому 409
+     * повторяется, как это сделал бы клиент.
+     */
+    private void approve(long bookingId, long ownerId) {
+        for (int attempt = 1; ; attempt++) {
+            ShareItApi.Response response = api.patch(config.server(), "/bookings/" + bookingId + "?approved=true",
+                    ownerId);
+            if (response.status() != 409 || attempt == APPROVE_ATTEMPTS) {
+                expectSuccess(response);
+                return;
+            }
+            try {
+                Thread.sleep(10L * attempt);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Генерация данных прервана", e);
+            }
+        }
+    }
+
+    private List<Long> createAll(int count, IntFunction<String> body, Request request) {
+        String[] bodies = new String[count];
+        for (int i = 0; i < count; i++) {
+            bodies[i] = body.apply(i);
+        }
+        return runAll(count, i -> id(expectSuccess(request.send(i, bodies[i]))));
+    }
+
+    private <T> List<T> runAll(int count, IntFunction<T> task) {
+        Semaphore permits = new Semaphore(config.seedConcurrency());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<T>> futures = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        return task.apply(index);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+            List<T> results = new ArrayList<>(count);
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Генерация данных прервана", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Не удалось создать данные: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private String userJson(int index) {
+        return json(Map.of("name", "user " + (index + 1),
+                "email", "user" + (index + 1) + "-" + config.seed() + "@loadtest.ru"));
+    }
+
+    private String json(Map<String, Object> value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private long id(ShareItApi.Response response) {
+        try {
+            return objectMapper.readTree(response.body()).get("id").asLong();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Ответ сервера без id: " + response.body(), e);
+        }
+    }
+
+    private static ShareItApi.Response expectSuccess(ShareItApi.Response response) {
+        if (!response.isSuccessful()) {
+            throw new IllegalStateException("Сервер ответил " + response.status() + ": " + response.body());
+        }
+        return response;
+    }
+
+    private interface Request {
+        ShareItApi.Response send(int index, String body);
+    }
+
+    private record PlannedBooking(Dataset.Item item, long booker, LocalDateTime start, boolean approve,
+                                  boolean comment) {
+    }
+}
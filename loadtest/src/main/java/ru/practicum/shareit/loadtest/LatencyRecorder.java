@@ -0,0 +1,103 @@
+package ru.practicum.shareit.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Задержки и исходы запросов по операциям. До окончания разогрева ничего не записывается.
+ */
+final class LatencyRecorder {
+    private final Map<String, Operation> operations = new ConcurrentHashMap<>();
+    private volatile boolean recording;
+
+    void start() {
+        recording = true;
+    }
+
+    void stop() {
+        recording = false;
+    }
+
+    void record(String operation, ShareItApi.Response response, long latencyNanos) {
+        if (recording) {
+            operations.computeIfAbsent(operation, name -> new Operation()).record(response, latencyNanos);
+        }
+    }
+
+    /**
+     * Сводка по операциям: число запросов по исходам, пропускная способность и перцентили задержки в мс.
+     */
+    Map<String, Map<String, Object>> summary(long measuredNanos) {
+        double seconds = measuredNanos / (double) TimeUnit.SECONDS.toNanos(1);
+        Map<String, Map<String, Object>> summary = new TreeMap<>();
+        operations.forEach((name, operation) -> summary.put(name, operation.summary(seconds)));
+        return summary;
+    }
+
+    private static final class Operation {
+        private long[] latencies = new long[1024];
+        private int count;
+        private int ok;
+        private int conflict;
+        private int throttled;
+        private int failed;
+        private String firstFailure;
+
+        synchronized void record(ShareItApi.Response response, long latencyNanos) {
+            int status = response.status();
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latencyNanos;
+            if (status >= 200 && status < 300) {
+                ok++;
+            } else if (status == 409) {
+                conflict++;
+            } else if (status == 429) {
+                throttled++;
+            } else {
+                failed++;
+                if (firstFailure == null) {
+                    String body = String.valueOf(response.body());
+                    firstFailure = status + " " + body.substring(0, Math.min(body.length(), 200));
+                }
+            }
+        }
+
+        synchronized Map<String, Object> summary(double seconds) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("requests", count);
+            summary.put("ok", ok);
+            summary.put("conflict", conflict);
+            summary.put("throttled", throttled);
+            summary.put("failed", failed);
+            summary.put("throughput", round(count / seconds));
+            summary.put("p50", millis(sorted, 0.50));
+            summary.put("p90", millis(sorted, 0.90));
+            summary.put("p99", millis(sorted, 0.99));
+            summary.put("max", millis(sorted, 1.0));
+            if (firstFailure != null) {
+                summary.put("firstFailure", firstFailure);
+            }
+            return summary;
+        }
+
+        private static double millis(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return round(sorted[Math.max(0, index)] / 1_000_000.0);
+        }
+
+        private static double round(double value) {
+            return Math.round(value * 100) / 100.0;
+        }
+    }
+}
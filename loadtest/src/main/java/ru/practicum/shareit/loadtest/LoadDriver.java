@@ -0,0 +1,108 @@
+package ru.practicum.shareit.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.random.RandomGenerator;
+
+/**
+ * Подаёт нагрузку в закрытой или открытой модели. Закрытая: concurrency клиентов отправляют следующий запрос
+ * после ответа на предыдущий, пропускная способность определяется задержкой. Открытая: запросы приходят
+ * с постоянной частотой rate, и при замедлении системы очередь растёт, а не исчезает из измерений.
+ */
+final class LoadDriver {
+    private final LoadTestConfig config;
+    private final Session session;
+    private final LatencyRecorder recorder;
+    private final Scenario[] scenarios;
+    private final int[] cumulativeWeights;
+
+    LoadDriver(LoadTestConfig config, Session session, LatencyRecorder recorder) {
+        this.config = config;
+        this.session = session;
+        this.recorder = recorder;
+        List<Scenario> chosen = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        int total = 0;
+        for (Map.Entry<Scenario, Integer> entry : config.scenario().entrySet()) {
+            if (entry.getValue() > 0) {
+                total += entry.getValue();
+                chosen.add(entry.getKey());
+                weights.add(total);
+            }
+        }
+        scenarios = chosen.toArray(new Scenario[0]);
+        cumulativeWeights = weights.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * @return длительность измерения в наносекундах
+     */
+    long run() throws InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + config.warmup().toNanos();
+        long end = measureFrom + config.duration().toNanos();
+        Thread.ofPlatform().daemon().start(() -> {
+            LockSupport.parkNanos(measureFrom - System.nanoTime());
+            recorder.start();
+        });
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            if (config.mode() == LoadTestConfig.Mode.CLOSED) {
+                runClosed(executor, end);
+            } else {
+                runOpen(executor, end);
+            }
+            executor.shutdown();
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } finally {
+            recorder.stop();
+        }
+        return end - measureFrom;
+    }
+
+    private void runClosed(ExecutorService executor, long end) {
+        for (int client = 0; client < config.concurrency(); client++) {
+            RandomGenerator random = new SplittableRandom(config.seed() + client);
+            executor.execute(() -> {
+                while (System.nanoTime() < end) {
+                    next(random).run(session, random);
+                }
+            });
+        }
+        LockSupport.parkNanos(end - System.nanoTime());
+    }
+
+    private void runOpen(ExecutorService executor, long end) {
+        SplittableRandom random = new SplittableRandom(config.seed());
+        long interval = TimeUnit.SECONDS.toNanos(1) / config.rate();
+        for (long scheduled = System.nanoTime(); scheduled < end; scheduled += interval) {
+            long delay = scheduled - System.nanoTime();
+            if (delay > 0) {
+                LockSupport.parkNanos(delay);
+            }
+            long at = scheduled;
+            SplittableRandom taskRandom = random.split();
+            executor.execute(() -> {
+                Session.Scheduled.set(at);
+                next(taskRandom).run(session, taskRandom);
+            });
+        }
+    }
+
+    private Scenario next(RandomGenerator random) {
+        int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return scenarios[i];
+            }
+        }
+        return scenarios[scenarios.length - 1];
+    }
+}
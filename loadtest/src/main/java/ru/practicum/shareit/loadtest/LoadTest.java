@@ -0,0 +1,63 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Нагрузочный тест шлюза и сервера: создаёт данные через сервер, подаёт нагрузку через шлюз и печатает
+ * задержки p50/p90/p99 и пропускную способность по операциям.
+ */
+public class LoadTest {
+    public static void main(String[] args) throws InterruptedException, IOException {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        ShareItApi api = new ShareItApi();
+
+        long generationStart = System.nanoTime();
+        Dataset dataset = new DatasetGenerator(config, api).generate();
+        System.out.printf("Данные созданы за %d с: пользователей %d, владельцев %d, вещей %d%n",
+                Duration.ofNanos(System.nanoTime() - generationStart).toSeconds(),
+                dataset.users().size(), dataset.owners().size(), dataset.items().size());
+
+        LatencyRecorder recorder = new LatencyRecorder();
+        LoadDriver driver = new LoadDriver(config, new Session(config, api, dataset, recorder), recorder);
+        System.out.printf("Нагрузка [%s]: режим %s, %s, разогрев %s, измерение %s%n", config.label(),
+                config.mode(), config.mode() == LoadTestConfig.Mode.CLOSED
+                        ? config.concurrency() + " клиентов" : config.rate() + " запросов/с",
+                config.warmup(), config.duration());
+        Map<String, Map<String, Object>> summary = recorder.summary(driver.run());
+
+        print(summary);
+        if (config.out() != null) {
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("label", config.label());
+            report.put("mode", config.mode());
+            report.put("concurrency", config.concurrency());
+            report.put("rate", config.rate());
+            report.put("duration", config.duration().toString());
+            report.put("operations", summary);
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(Path.of(config.out()).toFile(),
+                    report);
+        }
+        System.exit(0);
+    }
+
+    private static void print(Map<String, Map<String, Object>> summary) {
+        String format = "%-16s %9s %9s %9s %9s %9s %10s %9s %9s %9s %9s%n";
+        System.out.printf(format, "operation", "requests", "ok", "conflict", "throttled", "failed", "req/s",
+                "p50 ms", "p90 ms", "p99 ms", "max ms");
+        summary.forEach((operation, values) -> System.out.printf(format, operation, values.get("requests"),
+                values.get("ok"), values.get("conflict"), values.get("throttled"), values.get("failed"),
+                values.get("throughput"), values.get("p50"), values.get("p90"), values.get("p99"), values.get("max")));
+        summary.forEach((operation, values) -> {
+            if (values.containsKey("firstFailure")) {
+                System.out.printf("%s: первая ошибка %s%n", operation, values.get("firstFailure"));
+            }
+        });
+    }
+}
@@ -0,0 +1,88 @@
+package ru.practicum.shareit.loadtest;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Параметры запуска в виде key=value. Данные создаются напрямую через сервер, нагрузка идёт через шлюз.
+ *
+ * @param mode     closed - concurrency клиентов шлют запрос за запросом;
+ *                 open - запросы отправляются с частотой rate в секунду независимо от ответов
+ * @param scenario доли сценариев в нагрузке
+ * @param label    метка прогона в отчёте, например режим потоков шлюза
+ */
+public record LoadTestConfig(URI gateway, URI server, long seed, int users, int items, int bookings,
+                             double commentShare, boolean generate, int seedConcurrency, Mode mode,
+                             int concurrency, int rate, Duration warmup, Duration duration,
+                             Map<Scenario, Integer> scenario, String label, String out) {
+    private static final Set<String> KEYS = Set.of("gateway", "server", "seed", "users", "items", "bookings",
+            "comment-share", "generate", "seed-concurrency", "mode", "concurrency", "rate", "warmup", "duration",
+            "scenario", "label", "out");
+
+    public enum Mode {
+        CLOSED, OPEN
+    }
+
+    public static LoadTestConfig parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Ожидался параметр вида key=value: " + arg);
+            }
+            values.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        LoadTestConfig config = new LoadTestConfig(
+                URI.create(values.getOrDefault("gateway", "http://localhost:8080")),
+                URI.create(values.getOrDefault("server", "http://localhost:9090")),
+                Long.parseLong(values.getOrDefault("seed", "42")),
+                Integer.parseInt(values.getOrDefault("users", "200")),
+                Integer.parseInt(values.getOrDefault("items", "1000")),
+                Integer.parseInt(values.getOrDefault("bookings", "3000")),
+                Double.parseDouble(values.getOrDefault("comment-share", "0.3")),
+                Boolean.parseBoolean(values.getOrDefault("generate", "true")),
+                Integer.parseInt(values.getOrDefault("seed-concurrency", "16")),
+                Mode.valueOf(values.getOrDefault("mode", "closed").toUpperCase()),
+                Integer.parseInt(values.getOrDefault("concurrency", "32")),
+                Integer.parseInt(values.getOrDefault("rate", "200")),
+                parseDuration(values.getOrDefault("warmup", "10s")),
+                parseDuration(values.getOrDefault("duration", "30s")),
+                parseScenario(values.getOrDefault("scenario", "search:60,dashboard:30,booking:10")),
+                values.getOrDefault("label", "default"),
+                values.get("out"));
+        values.keySet().removeAll(KEYS);
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Неизвестные параметры: " + values.keySet());
+        }
+        return config;
+    }
+
+    /**
+     * Длительность в виде 500ms, 30s или 2m.
+     */
+    static Duration parseDuration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        long amount = Long.parseLong(value.substring(0, value.length() - 1));
+        return switch (value.charAt(value.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            default -> throw new IllegalArgumentException("Неверная длительность: " + value);
+        };
+    }
+
+    private static Map<Scenario, Integer> parseScenario(String value) {
+        Map<Scenario, Integer> weights = new EnumMap<>(Scenario.class);
+        for (String part : value.split(",")) {
+            String[] weight = part.split(":");
+            weights.put(Scenario.valueOf(weight[0].trim().toUpperCase()),
+                    weight.length > 1 ? Integer.parseInt(weight[1].trim()) : 1);
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.loadtest;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.random.RandomGenerator;
+
+/**
+ * Сценарии нагрузки через шлюз. Вещи, владельцы и слова поиска выбираются по закону Ципфа.
+ */
+public enum Scenario {
+    /**
+     * Поиск вещей по популярному слову.
+     */
+    SEARCH {
+        @Override
+        void run(Session session, RandomGenerator random) {
+            String text = session.searchTerm(random);
+            session.call("search", () -> session.api().get(session.gateway(),
+                    "/items/search?text=" + URLEncoder.encode(text, StandardCharsets.UTF_8) + "&from=0&size=20",
+                    session.user(random)));
+        }
+    },
+    /**
+     * Кабинет владельца: бронирования его вещей и список вещей с датами бронирований и отзывами.
+     */
+    DASHBOARD {
+        @Override
+        void run(Session session, RandomGenerator random) {
+            long owner = session.owner(random);
+            session.call("owner-bookings", () -> session.api().get(session.gateway(),
+                    "/bookings/owner?state=ALL&from=0&size=20", owner));
+            session.call("owner-items", () -> session.api().get(session.gateway(), "/items", owner));
+        }
+    },
+    /**
+     * Бронирование популярной вещи на 1-3 дня в ближайшие два года. Пересечение с существующим
+     * бронированием сервер отклоняет с 409, в отчёте это отдельный исход.
+     */
+    BOOKING {
+        @Override
+        void run(Session session, RandomGenerator random) {
+            Dataset.Item item = session.item(random);
+            long booker = session.user(random);
+            if (booker == item.ownerId()) {
+                return;
+            }
+            LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS)
+                    .plusHours(1 + random.nextInt(24 * 730));
+            LocalDateTime end = start.plusDays(1 + random.nextInt(3));
+            String body = "{\"itemId\":" + item.id() + ",\"start\":\"" + DATE_TIME.format(start)
+                    + "\",\"end\":\"" + DATE_TIME.format(end) + "\"}";
+            session.call("create-booking", () -> session.api().post(session.gateway(), "/bookings", booker, body));
+        }
+    };
+
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    abstract void run(Session session, RandomGenerator random);
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.loadtest;
+
+import java.net.URI;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+
+/**
+ * Общее для сценариев состояние прогона: данные, клиент и запись задержек.
+ */
+final class Session {
+    private final LoadTestConfig config;
+    private final ShareItApi api;
+    private final Dataset dataset;
+    private final LatencyRecorder recorder;
+    private final Zipf items;
+    private final Zipf owners;
+    private final Zipf searchTerms;
+
+    Session(LoadTestConfig config, ShareItApi api, Dataset dataset, LatencyRecorder recorder) {
+        this.config = config;
+        this.api = api;
+        this.dataset = dataset;
+        this.recorder = recorder;
+        items = new Zipf(dataset.items().size(), 1.0);
+        owners = new Zipf(dataset.owners().size(), 1.1);
+        searchTerms = new Zipf(dataset.searchTerms().size(), 1.0);
+    }
+
+    ShareItApi api() {
+        return api;
+    }
+
+    URI gateway() {
+        return config.gateway();
+    }
+
+    long user(RandomGenerator random) {
+        return dataset.users().get(random.nextInt(dataset.users().size()));
+    }
+
+    long owner(RandomGenerator random) {
+        return dataset.owners().get(owners.next(random));
+    }
+
+    Dataset.Item item(RandomGenerator random) {
+        return dataset.items().get(items.next(random));
+    }
+
+    String searchTerm(RandomGenerator random) {
+        return dataset.searchTerms().get(searchTerms.next(random));
+    }
+
+    /**
+     * В открытой модели задержка первого запроса считается от запланированного момента отправки,
+     * поэтому очередь на стороне генератора тоже попадает в отчёт.
+     */
+    void call(String operation, Supplier<ShareItApi.Response> request) {
+        long start = Scheduled.take();
+        ShareItApi.Response response = request.get();
+        recorder.record(operation, response, System.nanoTime() - start);
+    }
+
+    /**
+     * Запланированный момент отправки для текущего потока открытой модели.
+     */
+    static final class Scheduled {
+        private static final ThreadLocal<Long> AT = new ThreadLocal<>();
+
+        private Scheduled() {
+        }
+
+        static void set(long nanos) {
+            AT.set(nanos);
+        }
+
+        static long take() {
+            Long scheduled = AT.get();
+            AT.remove();
+            return scheduled != null ? scheduled : System.nanoTime();
+        }
+    }
+}
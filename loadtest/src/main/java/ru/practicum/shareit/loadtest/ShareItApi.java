@@ -0,0 +1,66 @@
+package ru.practicum.shareit.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+/**
+ * HTTP-клиент нагрузочного теста. Ошибка соединения возвращается как ответ со статусом 0,
+ * чтобы попасть в отчёт, а не прервать прогон.
+ */
+final class ShareItApi {
+    static final int CONNECTION_FAILED = 0;
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    Response get(URI base, String path, Long userId) {
+        return send(base, "GET", path, userId, null);
+    }
+
+    Response post(URI base, String path, Long userId, String body) {
+        return send(base, "POST", path, userId, body);
+    }
+
+    Response patch(URI base, String path, Long userId) {
+        return send(base, "PATCH", path, userId, null);
+    }
+
+    private Response send(URI base, String method, String path, Long userId, String body) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(base.resolve(path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Accept", "application/json")
+                .method(method, body != null
+                        ? HttpRequest.BodyPublishers.ofString(body)
+                        : HttpRequest.BodyPublishers.noBody());
+        if (body != null) {
+            request.header("Content-Type", "application/json");
+        }
+        if (userId != null) {
+            request.header(USER_ID_HEADER, String.valueOf(userId));
+        }
+        try {
+            HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            return new Response(response.statusCode(), response.body());
+        } catch (IOException e) {
+            return new Response(CONNECTION_FAILED, e.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Response(CONNECTION_FAILED, e.toString());
+        }
+    }
+
+    record Response(int status, String body) {
+        boolean isSuccessful() {
+            return status >= 200 && status < 300;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.loadtest;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Распределение Ципфа на индексах 0..size-1: индекс k выпадает с весом 1/(k+1)^exponent.
+ * Небольшая доля популярных вещей и активных владельцев получает большую часть обращений.
+ */
+final class Zipf {
+    private final double[] cumulative;
+
+    Zipf(int size, double exponent) {
+        cumulative = new double[size];
+        double sum = 0;
+        for (int k = 0; k < size; k++) {
+            sum += 1 / Math.pow(k + 1, exponent);
+            cumulative[k] = sum;
+        }
+        for (int k = 0; k < size; k++) {
+            cumulative[k] /= sum;
+        }
+    }
+
+    int next(RandomGenerator random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+    }
+}
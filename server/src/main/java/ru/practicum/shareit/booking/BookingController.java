@@ -2,13 +2,20 @@ package ru.practicum.shareit.booking;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.booking.dto.BookingAvailabilityDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.pagination.KeysetCursor;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.Optional;
 
 @RestController
 @RequestMapping(path = "/bookings")
@@ -34,19 +41,49 @@ public class BookingController {
 
     @GetMapping("/{bookingId}")
     public BookingDto getBookingById(@RequestHeader("X-Sharer-User-Id") int userId,
-                                     @PathVariable("bookingId") int bookingId) {
+                                     @PathVariable("bookingId") int bookingId,
+                                     WebRequest request) {
+        Optional<String> eTag = bookingService.getBookingETag(userId, bookingId);
+        if (eTag.isPresent() && request.checkNotModified(eTag.get())) {
+            return null;
+        }
         return bookingService.getBookingById(userId, bookingId);
     }
 
     @GetMapping
-    public Collection<BookingDto> getAllBookingsByUser(@RequestHeader("X-Sharer-User-Id") int userId,
-                                                       @RequestParam(defaultValue = "ALL") BookingState state) {
-        return bookingService.getAllBookingsByUser(userId, state);
+    public ResponseEntity<Collection<BookingDto>> getAllBookingsByUser(
+            @RequestHeader("X-Sharer-User-Id") int userId,
+            @RequestParam(defaultValue = "ALL") BookingState state,
+            @RequestParam(defaultValue = "0") int from,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor) {
+        Collection<BookingDto> bookings = bookingService.getAllBookingsByUser(userId, state, from, size,
+                KeysetCursor.decode(cursor));
+        return KeysetCursor.withNextCursor(bookings, size, booking -> new KeysetCursor(booking.getStart(),
+                booking.getId()));
     }
 
     @GetMapping("/owner")
-    public Collection<BookingDto> getAllBookingsByUserItems(@RequestHeader("X-Sharer-User-Id") int userId,
-                                                            @RequestParam(defaultValue = "ALL") BookingState state) {
-        return bookingService.getAllBookingsByUserItems(userId, state);
+    public ResponseEntity<Collection<BookingDto>> getAllBookingsByUserItems(
+            @RequestHeader("X-Sharer-User-Id") int userId,
+            @RequestParam(defaultValue = "ALL") BookingState state,
+            @RequestParam(defaultValue = "0") int from,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor) {
+        Collection<BookingDto> bookings = bookingService.getAllBookingsByUserItems(userId, state, from, size,
+                KeysetCursor.decode(cursor));
+        return KeysetCursor.withNextCursor(bookings, size, booking -> new KeysetCursor(booking.getStart(),
+                booking.getId()));
+    }
+
+    @GetMapping("/availability/{itemId}")
+    public BookingAvailabilityDto getItemAvailability(@PathVariable("itemId") int itemId,
+                                                      @RequestParam
+                                                      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                      LocalDateTime start,
+                                                      @RequestParam
+                                                      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                      LocalDateTime end) {
+        return bookingService.getItemAvailability(itemId, start, end);
     }
 }
@@ -1,48 +1,122 @@
 package ru.practicum.shareit.booking;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemBookingDates;
 
 import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface BookingRepository extends JpaRepository<Booking, Integer> {
 
-    Collection<Booking> findAllByBookerIdOrderByStartDesc(int bookerId);
+    String SELECT_DTO = "select new ru.practicum.shareit.booking.dto.BookingDto(b.id, b.start, b.end, b.status, " +
+            "i.id, i.name, u.id, u.name) " +
+            "from Booking as b join b.item as i join b.booker as u ";
+
+    String KEYSET = "and (b.start < :cursorStart or (b.start = :cursorStart and b.id < :cursorId)) " +
+            "order by b.start desc, b.id desc";
+
+    @Query(SELECT_DTO +
+            "where b.booker.id = :bookerId " + KEYSET)
+    List<BookingDto> findBookerBookings(int bookerId, LocalDateTime cursorStart, int cursorId, Pageable page);
+
+    @Query(SELECT_DTO +
+            "where b.booker.id = :bookerId " +
+            "and :current > b.start " +
+            "and :current < b.end " + KEYSET)
+    List<BookingDto> findBookerBookingsCurrent(int bookerId, LocalDateTime current,
+                                            LocalDateTime cursorStart, int cursorId, Pageable page);
+
+    @Query(SELECT_DTO +
+            "where b.booker.id = :bookerId " +
+            "and b.end < :current " + KEYSET)
+    List<BookingDto> findBookerBookingsPast(int bookerId, LocalDateTime current,
+                                         LocalDateTime cursorStart, int cursorId, Pageable page);
+
+    @Query(SELECT_DTO +
+            "where b.booker.id = :bookerId " +
+            "and b.start > :current " + KEYSET)
+    List<BookingDto> findBookerBookingsFuture(int bookerId, LocalDateTime current,
+                                           LocalDateTime cursorStart, int cursorId, Pageable page);
+
+    @Query(SELECT_DTO +
+            "where b.booker.id = :bookerId " +
+            "and b.status = :status " + KEYSET)
+    List<BookingDto> findBookerBookingsByStatus(int bookerId, BookingStatus status,
+                                             LocalDateTime cursorStart, int cursorId, Pageable page);
+
+    @Query(SELECT_DTO +
+            "where i.owner.id = :ownerId " + KEYSET)
+    List<BookingDto> findOwnerBookings(int ownerId, LocalDateTime cursorStart, int cursorId, Pageable page);
+
+    @Query(SELECT_DTO +
+            "where i.owner.id = :ownerId " +
+            "and :current > b.start " +
+            "and :current < b.end " + KEYSET)
+    List<BookingDto> findOwnerBookingsCurrent(int ownerId, LocalDateTime current,
+                                           LocalDateTime cursorStart, int cursorId, Pageable page);
+
+    @Query(SELECT_DTO +
+            "where i.owner.id = :ownerId " +
+            "and b.end < :current " + KEYSET)
+    List<BookingDto> findOwnerBookingsPast(int ownerId, LocalDateTime current,
+                                        LocalDateTime cursorStart, int cursorId, Pageable page);
+
+    @Query(SELECT_DTO +
+            "where i.owner.id = :ownerId " +
+            "and b.start > :current " + KEYSET)
+    List<BookingDto> findOwnerBookingsFuture(int ownerId, LocalDateTime current,
+                                          LocalDateTime cursorStart, int cursorId, Pageable page);
+
+    @Query(SELECT_DTO +
+            "where i.owner.id = :ownerId " +
+            "and b.status = :status " + KEYSET)
+    List<BookingDto> findOwnerBookingsByStatus(int ownerId, BookingStatus status,
+                                            LocalDateTime cursorStart, int cursorId, Pageable page);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findById(Integer id);
+
+    @EntityGraph(attributePaths = "booker")
+    Optional<Booking> findWithBookerById(int id);
+
+    @Query("select concat(cast(b.version as String), '-', cast(i.version as String), '-', " +
+            "cast(u.version as String)) " +
+            "from Booking as b join b.item as i join b.booker as u " +
+            "where b.id = :bookingId and (u.id = :userId or i.owner.id = :userId)")
+    Optional<String> findVersionTag(int bookingId, int userId);
+
+    @Query("select b.item.id as itemId, " +
+            "max(case when b.end < :current then b.start end) as lastBooking, " +
+            "min(case when b.start > :current then b.start end) as nextBooking " +
+            "from Booking as b " +
+            "where b.item.owner.id = :ownerId " +
+            "group by b.item.id")
+    List<ItemBookingDates> findItemBookingDatesByOwner(int ownerId, LocalDateTime current);
+
+    Booking findFirstByBookerIdAndItemIdAndEndBeforeOrderByStartDesc(int userId, int itemId, LocalDateTime current);
 
-    @Query("select b from Booking as b " +
-            "where b.booker.id = ?1 " +
-            "and ?2 > b.start " +
-            "and ?2 < b.end")
-    Collection<Booking> findAllBookingsCurrent(int bookerId, LocalDateTime current);
-
-    Collection<Booking> findAllByBookerIdAndEndBeforeOrderByStartDesc(int bookerId, LocalDateTime time);
+    Collection<Booking> findAllByItemIdAndStartAfterOrderByStartAsc(int itemId, LocalDateTime time);
 
-    Collection<Booking> findAllByBookerIdAndStartAfterOrderByStartDesc(int bookerId, LocalDateTime time);
+    Collection<Booking> findAllByItemIdAndEndBeforeOrderByEndAsc(int itemId, LocalDateTime time);
 
-    Collection<Booking> findAllByBookerIdAndStatusOrderByStartDesc(int bookerId, BookingStatus status);
+    @Query("select count(b) > 0 from Booking as b " +
+            "where b.item.id = :itemId and b.id <> :bookingId and b.status = :status " +
+            "and b.start < :end and b.end > :start")
+    boolean existsOverlapping(int itemId, int bookingId, BookingStatus status, LocalDateTime start,
+                              LocalDateTime end);
 
-    Collection<Booking> findAllByItemIdInOrderByStartDesc(Collection<Integer> ids);
+    Collection<Booking> findAllByStatusIn(Collection<BookingStatus> statuses);
 
     @Query("select b from Booking as b " +
-            "where b.booker.id in ?1 " +
-            "and ?2 > b.start " +
-            "and ?2 < b.end")
-    Collection<Booking> findAllBookingsCurrent(Collection<Integer> bookerId, LocalDateTime current);
-
-    Collection<Booking> findAllByItemIdInAndEndBeforeOrderByStartDesc(Collection<Integer> ids,
-                                                                      LocalDateTime time);
-
-    Collection<Booking> findAllByItemIdInAndStartAfterOrderByStartDesc(Collection<Integer> ids,
-                                                                       LocalDateTime time);
-
-    Collection<Booking> findAllByItemIdInAndStatusOrderByStartDesc(Collection<Integer> ids, BookingStatus status);
-
-    Booking findByBookerIdAndItemIdAndEndBeforeOrderByStartDesc(int userId, int itemId, LocalDateTime current);
-
-    Collection<Booking> findAllByItemIdAndStartAfterOrderByStartAsc(int itemId, LocalDateTime time);
-
-    Collection<Booking> findAllByItemIdAndEndBeforeOrderByEndAsc(int itemId, LocalDateTime time);
+            "where (b.booker.id = :userId or b.item.owner.id = :userId) " +
+            "and b.status in :statuses")
+    Collection<Booking> findAllByBookerOrItemOwnerAndStatusIn(int userId, Collection<BookingStatus> statuses);
 }
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BookingAvailabilityDto {
+    private int itemId;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private boolean available;
+    private LocalDateTime nextFreeSlot;
+}
@@ -4,8 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import ru.practicum.shareit.booking.model.BookingStatus;
-import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.item.dto.ItemShortDto;
+import ru.practicum.shareit.user.dto.UserShortDto;
 
 import java.time.LocalDateTime;
 
@@ -16,7 +16,12 @@ public class BookingDto {
     private int id;
     private LocalDateTime start;
     private LocalDateTime end;
-    private Item item;
-    private User booker;
+    private ItemShortDto item;
+    private UserShortDto booker;
     private BookingStatus status;
+
+    public BookingDto(int id, LocalDateTime start, LocalDateTime end, BookingStatus status,
+                      int itemId, String itemName, int bookerId, String bookerName) {
+        this(id, start, end, new ItemShortDto(itemId, itemName), new UserShortDto(bookerId, bookerName), status);
+    }
 }
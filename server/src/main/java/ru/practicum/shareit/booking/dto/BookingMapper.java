@@ -3,8 +3,13 @@ package ru.practicum.shareit.booking.dto;
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dto.UserMapper;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 @Component("bookingMapper")
 public class BookingMapper {
@@ -13,8 +18,8 @@ public class BookingMapper {
                 booking.getId(),
                 booking.getStart(),
                 booking.getEnd(),
-                booking.getItem(),
-                booking.getBooker(),
+                ItemMapper.toItemShortDto(booking.getItem()),
+                UserMapper.toUserShortDto(booking.getBooker()),
                 booking.getStatus()
         );
     }
@@ -24,20 +29,30 @@ public class BookingMapper {
                 bookingDto.getId(),
                 bookingDto.getStart(),
                 bookingDto.getEnd(),
-                bookingDto.getItem(),
-                bookingDto.getBooker(),
-                bookingDto.getStatus()
+                null,
+                null,
+                bookingDto.getStatus(),
+                null
         );
     }
 
     public static Booking toBooking(BookingInputDto bookingInputDto, Item item, User user) {
         return new Booking(
                 bookingInputDto.getId(),
-                bookingInputDto.getStart(),
-                bookingInputDto.getEnd(),
+                toStoredPrecision(bookingInputDto.getStart()),
+                toStoredPrecision(bookingInputDto.getEnd()),
                 item,
                 user,
-                BookingStatus.WAITING
+                BookingStatus.WAITING,
+                null
         );
     }
+
+    /**
+     * База хранит время с точностью до микросекунд. Индекс доступности должен получить те же значения,
+     * что вернёт база, иначе бронирование, перечитанное из базы, не найдётся в индексе.
+     */
+    private static LocalDateTime toStoredPrecision(LocalDateTime time) {
+        return time != null ? time.truncatedTo(ChronoUnit.MICROS) : null;
+    }
 }
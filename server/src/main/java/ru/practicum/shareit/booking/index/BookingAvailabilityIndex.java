@@ -0,0 +1,94 @@
+package ru.practicum.shareit.booking.index;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.exception.ConditionException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingAvailabilityIndex {
+    private static final List<BookingStatus> ACTIVE_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final Map<Integer, LockedTree> trees = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void warmUp() {
+        trees.clear();
+        bookingRepository.findAllByStatusIn(ACTIVE_STATUSES)
+                .forEach(booking -> withTree(booking.getItem().getId(), tree -> {
+                    tree.insert(booking.getId(), booking.getStart(), booking.getEnd());
+                    return booking;
+                }));
+        log.info("Индекс доступности вещей построен, вещей - {}", trees.size());
+    }
+
+    public Booking reserve(Booking booking, UnaryOperator<Booking> save) {
+        return withTree(booking.getItem().getId(), tree -> {
+            if (tree.overlaps(booking.getStart(), booking.getEnd())) {
+                throw new ConditionException("Вещь с id = " + booking.getItem().getId() +
+                        " уже забронирована на период с " + booking.getStart() + " по " + booking.getEnd());
+            }
+            Booking savedBooking = save.apply(booking);
+            tree.insert(savedBooking.getId(), savedBooking.getStart(), savedBooking.getEnd());
+            return savedBooking;
+        });
+    }
+
+    public void release(Booking booking) {
+        withTree(booking.getItem().getId(), tree -> tree.remove(booking.getId(), booking.getStart()));
+    }
+
+    /**
+     * Бронирования пользователя и бронирования его вещей, занимающие место в индексе. Удаление пользователя
+     * каскадно удаляет их из базы, и после фиксации удаления их нужно освободить через {@link #release}.
+     */
+    public Collection<Booking> findReservationsOfUser(int userId) {
+        return bookingRepository.findAllByBookerOrItemOwnerAndStatusIn(userId, ACTIVE_STATUSES);
+    }
+
+    public boolean isAvailable(int itemId, LocalDateTime start, LocalDateTime end) {
+        return withTree(itemId, tree -> !tree.overlaps(start, end));
+    }
+
+    public LocalDateTime nextFreeSlot(int itemId, LocalDateTime after, Duration duration) {
+        return withTree(itemId, tree -> tree.nextFreeSlot(after, duration));
+    }
+
+    /**
+     * Дерево вещи блокируется ReentrantLock, а не synchronized: reserve сохраняет бронирование в базу
+     * под блокировкой, и synchronized закрепил бы виртуальный поток за потоком-носителем на время запроса.
+     */
+    private <T> T withTree(int itemId, Function<BookingIntervalTree, T> action) {
+        LockedTree lockedTree = trees.computeIfAbsent(itemId, id -> new LockedTree());
+        lockedTree.lock().lock();
+        try {
+            return action.apply(lockedTree.tree());
+        } finally {
+            lockedTree.lock().unlock();
+        }
+    }
+
+    private record LockedTree(BookingIntervalTree tree, Lock lock) {
+        LockedTree() {
+            this(new BookingIntervalTree(), new ReentrantLock());
+        }
+    }
+}
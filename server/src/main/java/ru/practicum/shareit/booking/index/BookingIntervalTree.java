@@ -0,0 +1,167 @@
+package ru.practicum.shareit.booking.index;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Дерево интервалов [start, end) бронирований одной вещи.
+ * Декартово дерево по (start, bookingId), каждый узел хранит максимальный end своего поддерева,
+ * поэтому проверка пересечения и вставка/удаление выполняются за O(log n).
+ */
+public class BookingIntervalTree {
+    private Node root;
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public void insert(int bookingId, LocalDateTime start, LocalDateTime end) {
+        root = insert(root, new Node(bookingId, start, end));
+        size++;
+    }
+
+    public boolean remove(int bookingId, LocalDateTime start) {
+        int before = size;
+        root = remove(root, bookingId, start);
+        return size < before;
+    }
+
+    public boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        return findOverlapping(start, end) != null;
+    }
+
+    /**
+     * Самое раннее начало не раньше after, с которого вещь свободна весь период duration.
+     * Пересекающее окно бронирование исключает любое начало до своего конца, поэтому кандидат
+     * сдвигается на конец найденного бронирования, пока окно не станет свободным.
+     */
+    public LocalDateTime nextFreeSlot(LocalDateTime after, Duration duration) {
+        LocalDateTime candidate = after;
+        Node overlapping = findOverlapping(candidate, candidate.plus(duration));
+        while (overlapping != null) {
+            candidate = overlapping.end;
+            overlapping = findOverlapping(candidate, candidate.plus(duration));
+        }
+        return candidate;
+    }
+
+    private Node findOverlapping(LocalDateTime start, LocalDateTime end) {
+        Node node = root;
+        while (node != null) {
+            if (node.start.isBefore(end) && node.end.isAfter(start)) {
+                return node;
+            }
+            if (node.left != null && node.left.maxEnd.isAfter(start)) {
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return null;
+    }
+
+    private static Node insert(Node node, Node inserted) {
+        if (node == null) {
+            return inserted;
+        }
+        if (compare(inserted.start, inserted.bookingId, node) < 0) {
+            node.left = insert(node.left, inserted);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, inserted);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        node.update();
+        return node;
+    }
+
+    private Node remove(Node node, int bookingId, LocalDateTime start) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(start, bookingId, node);
+        if (cmp < 0) {
+            node.left = remove(node.left, bookingId, start);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, bookingId, start);
+        } else {
+            size--;
+            return merge(node.left, node.right);
+        }
+        node.update();
+        return node;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        node.update();
+        left.update();
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        node.update();
+        right.update();
+        return right;
+    }
+
+    private static int compare(LocalDateTime start, int bookingId, Node node) {
+        int cmp = start.compareTo(node.start);
+        return cmp != 0 ? cmp : Integer.compare(bookingId, node.bookingId);
+    }
+
+    private static final class Node {
+        private final int bookingId;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private LocalDateTime maxEnd;
+        private Node left;
+        private Node right;
+
+        private Node(int bookingId, LocalDateTime start, LocalDateTime end) {
+            this.bookingId = bookingId;
+            this.start = start;
+            this.end = end;
+            this.maxEnd = end;
+        }
+
+        private void update() {
+            maxEnd = end;
+            if (left != null && left.maxEnd.isAfter(maxEnd)) {
+                maxEnd = left.maxEnd;
+            }
+            if (right != null && right.maxEnd.isAfter(maxEnd)) {
+                maxEnd = right.maxEnd;
+            }
+        }
+    }
+}
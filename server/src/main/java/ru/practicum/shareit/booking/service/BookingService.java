@@ -1,10 +1,14 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingAvailabilityDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.pagination.KeysetCursor;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.Optional;
 
 public interface BookingService {
 
@@ -14,8 +18,14 @@ public interface BookingService {
 
     BookingDto getBookingById(int userId, int bookingId);
 
-    Collection<BookingDto> getAllBookingsByUser(int userId, BookingState state);
+    Optional<String> getBookingETag(int userId, int bookingId);
 
-    Collection<BookingDto> getAllBookingsByUserItems(int userId, BookingState state);
+    Collection<BookingDto> getAllBookingsByUser(int userId, BookingState state, int from, int size,
+                                                KeysetCursor cursor);
+
+    Collection<BookingDto> getAllBookingsByUserItems(int userId, BookingState state, int from, int size,
+                                                     KeysetCursor cursor);
+
+    BookingAvailabilityDto getItemAvailability(int itemId, LocalDateTime start, LocalDateTime end);
 
 }
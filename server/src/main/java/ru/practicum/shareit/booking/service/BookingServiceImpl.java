@@ -1,76 +1,122 @@
 package ru.practicum.shareit.booking.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingAvailabilityDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.index.BookingAvailabilityIndex;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.db.OptimisticRetry;
 import ru.practicum.shareit.exception.*;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.user.User;
-import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.Optional;
 
 @Slf4j
 @Service
 @AllArgsConstructor
+@Timed("shareit.service")
 public class BookingServiceImpl implements BookingService {
+
     private final BookingRepository bookingRepository;
-    private final UserRepository userRepository;
+    private final UserService userService;
     private final ItemRepository itemRepository;
     private final BookingMapper bookingMapper;
+    private final BookingAvailabilityIndex availabilityIndex;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
     public BookingDto createBooking(int userId, BookingInputDto bookingInputDto) {
         log.info("Creating booking {}, userId={}", bookingInputDto, userId);
-        User user = userRepository.findById(userId).orElseThrow(
-                () -> new UserNotFoundException("Пользователь с id = " + userId + " не найден"));
-        Item item = itemRepository.findById(bookingInputDto.getItemId()).orElseThrow(
+        User user = userService.getUser(userId);
+        Item item = itemRepository.findWithOwnerById(bookingInputDto.getItemId()).orElseThrow(
                 () -> new ItemNotFoundException("Вещь с id = " + bookingInputDto.getItemId() + " не найдена"));
         if (!item.getAvailable()) {
             throw new ConditionException("Вещь с id = " + item.getId() + "не доступна для бронирования");
         }
+        if (bookingInputDto.getStart() == null || bookingInputDto.getEnd() == null
+                || !bookingInputDto.getStart().isBefore(bookingInputDto.getEnd())) {
+            throw new ConditionException("Дата начала бронирования должна быть раньше даты окончания");
+        }
         Booking booking = bookingMapper.toBooking(bookingInputDto, item, user);
         log.info("Сохранение бронирования - {}", booking);
-        return bookingMapper.toBookingDto(bookingRepository.save(booking));
+        BookingDto savedBooking = bookingMapper.toBookingDto(availabilityIndex.reserve(booking,
+                bookingRepository::save));
+        itemRepository.incrementVersion(item.getId());
+        return savedBooking;
     }
 
     @Override
     public BookingDto approveBooking(int userId, int bookingId, Boolean approved) {
         log.info("Запрос на изменение бронирования по id - {}, Пользователем userId - {} и статусом - {}",
                 bookingId, userId, approved);
-        User user = userRepository.findById(userId).orElseThrow(
-                () -> new ForbiddenException("Пользователь с id = " + userId + " не может управлять бронированием"));
-        Booking booking = bookingRepository.findById(bookingId).orElseThrow(
+        if (!userService.existsById(userId)) {
+            throw new ForbiddenException("Пользователь с id = " + userId + " не может управлять бронированием");
+        }
+        try {
+            Booking booking = OptimisticRetry.inTransaction(transactionTemplate,
+                    status -> decideBooking(userId, bookingId, approved),
+                    "Бронирование с id = " + bookingId + " одновременно изменяется другим запросом, повторите попытку");
+            if (booking.getStatus() == BookingStatus.REJECTED) {
+                availabilityIndex.release(booking);
+            }
+            log.info("Сохранение бронирования - {}", booking);
+            return bookingMapper.toBookingDto(booking);
+        } catch (DataIntegrityViolationException e) {
+            throw new ConflictException("Бронирование с id = " + bookingId +
+                    " пересекается с уже подтверждённым бронированием вещи");
+        }
+    }
+
+    private Booking decideBooking(int userId, int bookingId, boolean approved) {
+        Booking booking = bookingRepository.findWithBookerById(bookingId).orElseThrow(
                 () -> new BookingNotFoundException("Бронирование с id = " + bookingId + "не найдено"));
         log.info("Бронирование для изменения - {}", booking);
-        if (userId != booking.getItem().getOwner().getId()) {
+        int itemId = booking.getItem().getId();
+        Item item = (approved ? itemRepository.findForUpdateById(itemId) : itemRepository.findWithOwnerById(itemId))
+                .orElseThrow(() -> new ItemNotFoundException("Вещь с id = " + itemId + " не найдена"));
+        if (userId != item.getOwner().getId()) {
             throw new ForbiddenException("Только владелец вещи может управлять бронированием");
         }
+        if (booking.getStatus() != BookingStatus.WAITING) {
+            throw new ConflictException("Бронирование с id = " + bookingId + " уже рассмотрено, статус - " +
+                    booking.getStatus());
+        }
+        if (approved && bookingRepository.existsOverlapping(itemId, bookingId, BookingStatus.APPROVED,
+                booking.getStart(), booking.getEnd())) {
+            throw new ConflictException("Вещь с id = " + itemId +
+                    " уже забронирована на период с " + booking.getStart() + " по " + booking.getEnd());
+        }
         booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
         log.info("Статус бронирования - {}", booking.getStatus());
-        Booking savedBooking = bookingRepository.save(booking);
-        log.info("Сохранение бронирования - {}", savedBooking);
-        return bookingMapper.toBookingDto(savedBooking);
+        return bookingRepository.save(booking);
     }
 
     @Override
     public BookingDto getBookingById(int userId, int bookingId) {
-        User user = userRepository.findById(userId).orElseThrow(
-                () -> new UserNotFoundException("Пользователь с id = " + userId + " не найден"));
+        if (!userService.existsById(userId)) {
+            throw new UserNotFoundException("Пользователь с id = " + userId + " не найден");
+        }
         Booking booking = bookingRepository.findById(bookingId).orElseThrow(
                 () -> new BookingNotFoundException("Бронирование с id = " + bookingId + "не найдено"));
-        Item item = itemRepository.findById(booking.getItem().getId()).orElseThrow(
-                () -> new ItemNotFoundException("Вещь с id = " + booking.getItem().getId() + " не найдена"));
-        if ((userId != booking.getBooker().getId()) && (userId != item.getOwner().getId())) {
+        if ((userId != booking.getBooker().getId()) && (userId != booking.getItem().getOwner().getId())) {
             throw new ConditionException("Просмотр бронирования доступен только владельцу вещи или человеку," +
                     " который забронировал вещь");
         }
@@ -78,76 +124,103 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public Collection<BookingDto> getAllBookingsByUser(int userId, BookingState state) {
-        User user = userRepository.findById(userId).orElseThrow(
-                () -> new UserNotFoundException("Пользователь с id = " + userId + " не найден"));
-        Collection<Booking> bookings;
+    public Optional<String> getBookingETag(int userId, int bookingId) {
+        return bookingRepository.findVersionTag(bookingId, userId);
+    }
+
+    @Override
+    public Collection<BookingDto> getAllBookingsByUser(int userId, BookingState state, int from, int size,
+                                                       KeysetCursor cursor) {
+        if (!userService.existsById(userId)) {
+            throw new UserNotFoundException("Пользователь с id = " + userId + " не найден");
+        }
+        Pageable page = KeysetCursor.toPage(from, size, cursor);
+        KeysetCursor after = KeysetCursor.orFirst(cursor);
+        LocalDateTime start = after.getTime();
+        int id = after.getId();
+        Collection<BookingDto> bookings;
         switch (state) {
             case ALL:
-                bookings = bookingRepository.findAllByBookerIdOrderByStartDesc(userId);
+                bookings = bookingRepository.findBookerBookings(userId, start, id, page);
                 break;
             case CURRENT:
-                bookings = bookingRepository.findAllBookingsCurrent(userId, LocalDateTime.now());
+                bookings = bookingRepository.findBookerBookingsCurrent(userId, LocalDateTime.now(), start, id, page);
                 break;
             case PAST:
-                bookings = bookingRepository.findAllByBookerIdAndEndBeforeOrderByStartDesc(userId,
-                        LocalDateTime.now());
+                bookings = bookingRepository.findBookerBookingsPast(userId, LocalDateTime.now(), start, id, page);
                 break;
             case FUTURE:
-                bookings = bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDesc(userId,
-                        LocalDateTime.now());
+                bookings = bookingRepository.findBookerBookingsFuture(userId, LocalDateTime.now(), start, id, page);
                 break;
             case WAITING:
-                bookings = bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(userId,
-                        BookingStatus.WAITING);
+                bookings = bookingRepository.findBookerBookingsByStatus(userId, BookingStatus.WAITING,
+                        start, id, page);
                 break;
             case REJECTED:
-                bookings = bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(userId,
-                        BookingStatus.REJECTED);
+                bookings = bookingRepository.findBookerBookingsByStatus(userId, BookingStatus.REJECTED,
+                        start, id, page);
                 break;
             default:
                 throw new ConditionException("Неверное значение параметра state" + state.toString());
         }
-        return bookings.stream().map(BookingMapper::toBookingDto).toList();
+        return bookings;
     }
 
     @Override
-    public Collection<BookingDto> getAllBookingsByUserItems(int userId, BookingState state) {
-        User user = userRepository.findById(userId).orElseThrow(
-                () -> new UserNotFoundException("Пользователь с id = " + userId + " не найден"));
-        Collection<Item> items = itemRepository.findAllByOwnerId(userId);
-        Collection<Integer> ids = items.stream().map(Item::getId).toList();
-        if (items.size() == 0) {
+    public Collection<BookingDto> getAllBookingsByUserItems(int userId, BookingState state, int from, int size,
+                                                            KeysetCursor cursor) {
+        if (!userService.existsById(userId)) {
+            throw new UserNotFoundException("Пользователь с id = " + userId + " не найден");
+        }
+        if (!itemRepository.existsByOwnerId(userId)) {
             throw new ItemNotFoundException("У пользователя нет вещей");
         }
-        Collection<Booking> bookings;
+        Pageable page = KeysetCursor.toPage(from, size, cursor);
+        KeysetCursor after = KeysetCursor.orFirst(cursor);
+        LocalDateTime start = after.getTime();
+        int id = after.getId();
+        Collection<BookingDto> bookings;
         switch (state) {
             case ALL:
-                bookings = bookingRepository.findAllByItemIdInOrderByStartDesc(ids);
-                ;
+                bookings = bookingRepository.findOwnerBookings(userId, start, id, page);
                 break;
             case CURRENT:
-                bookings = bookingRepository.findAllBookingsCurrent(ids, LocalDateTime.now());
+                bookings = bookingRepository.findOwnerBookingsCurrent(userId, LocalDateTime.now(), start, id, page);
                 break;
             case PAST:
-                bookings = bookingRepository.findAllByItemIdInAndEndBeforeOrderByStartDesc(ids,
-                        LocalDateTime.now());
+                bookings = bookingRepository.findOwnerBookingsPast(userId, LocalDateTime.now(), start, id, page);
                 break;
             case FUTURE:
-                bookings = bookingRepository.findAllByItemIdInAndStartAfterOrderByStartDesc(ids,
-                        LocalDateTime.now());
+                bookings = bookingRepository.findOwnerBookingsFuture(userId, LocalDateTime.now(), start, id, page);
                 break;
             case WAITING:
-                bookings = bookingRepository.findAllByItemIdInAndStatusOrderByStartDesc(ids,
-                        BookingStatus.WAITING);
+                bookings = bookingRepository.findOwnerBookingsByStatus(userId, BookingStatus.WAITING,
+                        start, id, page);
                 break;
             case REJECTED:
-                bookings = bookingRepository.findAllByItemIdInAndStatusOrderByStartDesc(ids,
-                        BookingStatus.REJECTED);
+                bookings = bookingRepository.findOwnerBookingsByStatus(userId, BookingStatus.REJECTED,
+                        start, id, page);
                 break;
             default:
                 throw new ConditionException("Неверное значение параметра state" + state.toString());
         }
-        return bookings.stream().map(BookingMapper::toBookingDto).toList();
+        return bookings;
+    }
+
+    @Override
+    public BookingAvailabilityDto getItemAvailability(int itemId, LocalDateTime start, LocalDateTime end) {
+        if (!itemRepository.existsById(itemId)) {
+            throw new ItemNotFoundException("Вещь с id = " + itemId + " не найдена");
+        }
+        if (!start.isBefore(end)) {
+            throw new ConditionException("Дата начала периода должна быть раньше даты окончания");
+        }
+        return BookingAvailabilityDto.builder()
+                .itemId(itemId)
+                .start(start)
+                .end(end)
+                .available(availabilityIndex.isAvailable(itemId, start, end))
+                .nextFreeSlot(availabilityIndex.nextFreeSlot(itemId, start, Duration.between(start, end)))
+                .build();
     }
 }
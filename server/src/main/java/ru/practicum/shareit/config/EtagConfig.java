@@ -0,0 +1,24 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+/**
+ * ETag по хэшу тела и 304 на совпавший If-None-Match для списков, у которых нет ETag по версии.
+ * По этим тегам шлюз перепроверяет свой кэш ответов. Карточки пользователя, вещи, бронирования и запроса
+ * отдают ETag по версии сами, поэтому их тела фильтр не буферизует и не хэширует.
+ */
+@Configuration
+public class EtagConfig {
+
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> shallowEtagHeaderFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+                new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns("/users", "/items", "/items/search", "/bookings", "/bookings/owner",
+                "/bookings/availability/*", "/requests", "/requests/all");
+        return registration;
+    }
+}
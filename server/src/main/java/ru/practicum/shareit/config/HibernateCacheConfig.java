@@ -0,0 +1,75 @@
+package ru.practicum.shareit.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Второй уровень кэша Hibernate на Caffeine (JCache).
+ * Какие сущности кэшируются, задаётся в application.properties через hibernate.classcache.*,
+ * размер и время жизни регионов - через shareit.hibernate-cache.regions.*.
+ * Регионы заранее создаются в CacheManager провайдера Caffeine, который передаётся Hibernate
+ * через hibernate.javax.cache.cache_manager. Регионы без настроек (например, default-update-timestamps-region)
+ * Hibernate создаёт сам, неограниченными.
+ * У каждой фабрики сессий свой CacheManager со своим URI: провайдер хранит менеджеры по URI, и с общим
+ * менеджером по умолчанию несколько контекстов в одной JVM (как в тестах) читали бы записи друг друга.
+ * Hibernate закрывает менеджер вместе с фабрикой сессий.
+ * Статистика регионов ведётся самим Caffeine и публикуется в Micrometer (cache.gets, cache.puts, cache.evictions
+ * с тегами cache и cache.manager=hibernateCacheManager), поэтому попадания в кэш видны в /actuator/prometheus
+ * без hibernate.generate_statistics. Тег cache.manager отличает регион users от кэша UserCache.
+ */
+@Configuration
+@EnableConfigurationProperties(HibernateCacheProperties.class)
+public class HibernateCacheConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return hibernateProperties -> {
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "create");
+        };
+    }
+
+    @Bean
+    public MeterBinder hibernateCacheMetrics(CacheManager hibernateCacheManager, HibernateCacheProperties properties) {
+        return registry -> properties.getRegions().keySet().forEach(regionName ->
+                JCacheMetrics.monitor(registry, hibernateCacheManager.getCache(regionName),
+                        "cache.manager", "hibernateCacheManager"));
+    }
+
+    @Bean(destroyMethod = "")
+    public CacheManager hibernateCacheManager(HibernateCacheProperties properties) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("shareit:hibernate-cache:" + UUID.randomUUID()), provider.getDefaultClassLoader());
+        properties.getRegions().forEach((regionName, region) -> {
+            if (cacheManager.getCache(regionName) == null) {
+                cacheManager.createCache(regionName, configuration(region));
+            }
+        });
+        return cacheManager;
+    }
+
+    private static CaffeineConfiguration<Object, Object> configuration(HibernateCacheProperties.Region region) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(region.getMaximumSize()));
+        if (region.getExpireAfterWrite() != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(region.getExpireAfterWrite().toNanos()));
+        }
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+}
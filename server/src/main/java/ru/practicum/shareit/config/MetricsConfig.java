@@ -0,0 +1,20 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Таймеры методов сервисов, помеченных @Timed: shareit.service с тегами class, method и exception
+ * (none для успешного вызова). Запросы к репозиториям Spring Boot измеряет сам
+ * (spring.data.repository.invocations), вместе они показывают, где теряется время запроса.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
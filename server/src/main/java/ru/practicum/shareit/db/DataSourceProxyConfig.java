@@ -0,0 +1,41 @@
+package ru.practicum.shareit.db;
+
+import net.ttddyy.dsproxy.listener.logging.SLF4JLogLevel;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Оборачивает DataSource в datasource-proxy: каждый запрос засчитывается в DbStatistics текущего
+ * HTTP-запроса, а запросы дольше shareit.db-statistics.slow-query-threshold пишутся в лог
+ * ru.practicum.shareit.db.SlowQuery с параметрами, в том числе ещё не завершившиеся.
+ */
+@Configuration
+@EnableConfigurationProperties(DbStatisticsProperties.class)
+public class DataSourceProxyConfig {
+    static final String SLOW_QUERY_LOGGER = "ru.practicum.shareit.db.SlowQuery";
+
+    @Bean
+    public static BeanPostProcessor dataSourceProxyPostProcessor(ObjectProvider<DbStatisticsProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) {
+                    return bean;
+                }
+                return ProxyDataSourceBuilder.create(beanName, dataSource)
+                        .listener(new DbStatisticsListener())
+                        .logSlowQueryBySlf4j(properties.getObject().getSlowQueryThreshold().toMillis(),
+                                TimeUnit.MILLISECONDS, SLF4JLogLevel.WARN, SLOW_QUERY_LOGGER)
+                        .build();
+            }
+        };
+    }
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.db;
+
+import java.time.Duration;
+
+/**
+ * Число запросов к базе и суммарное время их выполнения в пределах одного HTTP-запроса.
+ * Привязана к потоку запроса: DbStatisticsFilter открывает её, DbStatisticsListener пополняет.
+ * Запросы вне открытой статистики (миграции, фоновые задачи) не учитываются.
+ */
+public final class DbStatistics {
+    private static final ThreadLocal<DbStatistics> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long nanos;
+
+    private DbStatistics() {
+    }
+
+    public static DbStatistics start() {
+        DbStatistics statistics = new DbStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    static void record(long elapsedNanos) {
+        DbStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.statements++;
+            statistics.nanos += elapsedNanos;
+        }
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public Duration getTime() {
+        return Duration.ofNanos(nanos);
+    }
+}
@@ -0,0 +1,114 @@
+package ru.practicum.shareit.db;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+
+/**
+ * Считает запросы к базе на каждый HTTP-запрос. Если их больше statement-warn-threshold, пишет
+ * предупреждение: так N+1 видно в логе до того, как оно заметно по задержкам.
+ * При включённом response-headers отдаёт X-DB-Statements и X-DB-Time (в миллисекундах).
+ * Заголовки ставятся перед записью тела: open-in-view выключен, поэтому к этому моменту
+ * вся работа с базой уже сделана. Фильтр стоит первым, снаружи ShallowEtagHeaderFilter.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@EnableConfigurationProperties(DbStatisticsProperties.class)
+public class DbStatisticsFilter extends OncePerRequestFilter {
+    public static final String STATEMENTS_HEADER = "X-DB-Statements";
+    public static final String TIME_HEADER = "X-DB-Time";
+
+    private final DbStatisticsProperties properties;
+
+    public DbStatisticsFilter(DbStatisticsProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        DbStatistics statistics = DbStatistics.start();
+        StatisticsResponse statisticsResponse = new StatisticsResponse(response, statistics);
+        try {
+            chain.doFilter(request, properties.isResponseHeaders() ? statisticsResponse : response);
+        } finally {
+            DbStatistics.stop();
+        }
+        if (properties.isResponseHeaders()) {
+            statisticsResponse.writeHeaders();
+        }
+        if (statistics.getStatements() > properties.getStatementWarnThreshold()) {
+            log.warn("{} {}: {} запросов к базе за {} мс", request.getMethod(), request.getRequestURI(),
+                    statistics.getStatements(), statistics.getTime().toMillis());
+        }
+    }
+
+    private static class StatisticsResponse extends HttpServletResponseWrapper {
+        private final DbStatistics statistics;
+        private boolean headersWritten;
+
+        StatisticsResponse(HttpServletResponse response, DbStatistics statistics) {
+            super(response);
+            this.statistics = statistics;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeaders();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeaders();
+            super.sendRedirect(location);
+        }
+
+        void writeHeaders() {
+            if (headersWritten || isCommitted()) {
+                return;
+            }
+            headersWritten = true;
+            setHeader(STATEMENTS_HEADER, String.valueOf(statistics.getStatements()));
+            setHeader(TIME_HEADER, String.format(Locale.ROOT, "%.3f", statistics.getTime().toNanos() / 1_000_000.0));
+        }
+    }
+}
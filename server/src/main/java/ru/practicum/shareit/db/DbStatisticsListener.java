@@ -0,0 +1,27 @@
+package ru.practicum.shareit.db;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+/**
+ * Засчитывает каждое выполнение Statement в статистику текущего запроса. Пакет считается одним запросом:
+ * важно число обращений к базе, а не строк в нём. Время меряется в наносекундах, потому что
+ * datasource-proxy отдаёт его в миллисекундах, а запросы по индексу обычно быстрее.
+ */
+class DbStatisticsListener implements QueryExecutionListener {
+    private static final String START = DbStatisticsListener.class.getName() + ".start";
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(START, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long start = execInfo.getCustomValue(START, Long.class);
+        DbStatistics.record(start != null ? System.nanoTime() - start : 0);
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.db;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties("shareit.db-statistics")
+public class DbStatisticsProperties {
+    /**
+     * Запросы дольше порога пишутся в лог ru.practicum.shareit.db.SlowQuery вместе с параметрами.
+     */
+    private Duration slowQueryThreshold = Duration.ofMillis(200);
+
+    /**
+     * Сколько запросов к базе допустимо на один HTTP-запрос, сверх этого пишется предупреждение.
+     */
+    private int statementWarnThreshold = 20;
+
+    /**
+     * Отдавать X-DB-Statements и X-DB-Time в ответах. Включается только в профилях dev и test.
+     */
+    private boolean responseHeaders = false;
+}
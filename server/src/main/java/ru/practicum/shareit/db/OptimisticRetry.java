@@ -0,0 +1,48 @@
+package ru.practicum.shareit.db;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exception.ConflictException;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Чтение, проверка и запись версионированной сущности в одной транзакции. При конфликте версий
+ * транзакция повторяется с экспоненциальной задержкой и случайным разбросом, после последней
+ * попытки запрос получает 409 с переданным сообщением.
+ */
+@Slf4j
+public final class OptimisticRetry {
+    private static final int ATTEMPTS = 5;
+    private static final long BACKOFF_MILLIS = 10;
+
+    private OptimisticRetry() {
+    }
+
+    public static <T> T inTransaction(TransactionTemplate transactionTemplate, TransactionCallback<T> action,
+                                      String conflictMessage) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(action);
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt == ATTEMPTS) {
+                    throw new ConflictException(conflictMessage);
+                }
+                log.info("Конфликт версий, попытка {}: {}", attempt, e.getMessage());
+                backOff(attempt);
+            }
+        }
+    }
+
+    private static void backOff(int attempt) {
+        long delay = BACKOFF_MILLIS << (attempt - 1);
+        try {
+            Thread.sleep(delay + ThreadLocalRandom.current().nextLong(delay));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("Изменение прервано");
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.db;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceUnitUtil;
+import jakarta.persistence.TypedQuery;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Поднимает версии найденных запросом сущностей блокировкой PESSIMISTIC_FORCE_INCREMENT. Массовый update
+ * сбросил бы весь регион второго уровня кэша и кэш запросов по таблице, а блокировка меняет только
+ * найденные строки. Блокируется каждая загруженная сущность отдельно: блокировка в самом запросе не
+ * поднимает версию у сущностей, уже загруженных в текущую сессию.
+ * Запись сущности в кэше Hibernate при этом не обновляет, поэтому она сбрасывается сразу и ещё раз
+ * после завершения транзакции - чтобы в кэш не вернулась версия, прочитанная до фиксации.
+ * Вызывается внутри транзакции.
+ */
+public final class VersionIncrement {
+
+    private VersionIncrement() {
+    }
+
+    public static <T> void forceIncrement(EntityManager em, TypedQuery<T> query, Class<T> entityClass) {
+        PersistenceUnitUtil persistenceUnitUtil = em.getEntityManagerFactory().getPersistenceUnitUtil();
+        List<Object> ids = new ArrayList<>();
+        for (T entity : query.getResultList()) {
+            em.lock(entity, LockModeType.PESSIMISTIC_FORCE_INCREMENT);
+            ids.add(persistenceUnitUtil.getIdentifier(entity));
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+        Cache cache = em.getEntityManagerFactory().getCache();
+        ids.forEach(id -> cache.evict(entityClass, id));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                ids.forEach(id -> cache.evict(entityClass, id));
+            }
+        });
+    }
+}
@@ -2,6 +2,9 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -31,8 +34,20 @@ public class ItemController {
     }
 
     @GetMapping("/{id}")
-    public ItemDto getItemById(@RequestHeader("X-Sharer-User-Id") int userId, @PathVariable int id) {
-        return itemService.getItemById(id);
+    public ResponseEntity<ItemDto> getItemById(@RequestHeader("X-Sharer-User-Id") int userId,
+                                               @PathVariable int id,
+                                               @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                               String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            for (String eTag : ifNoneMatch.split(",")) {
+                String value = eTag.trim().replaceFirst("^W/", "").replace("\"", "");
+                if (itemService.isItemETagCurrent(id, value)) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(value).build();
+                }
+            }
+        }
+        ItemDto item = itemService.getItemById(id);
+        return ResponseEntity.ok().eTag(itemService.getItemETag(item)).body(item);
     }
 
     @GetMapping
@@ -41,8 +56,10 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public Collection<ItemDto> searchItem(@RequestParam String text) {
-        return itemService.searchItems(text);
+    public Collection<ItemDto> searchItem(@RequestParam String text,
+                                          @RequestParam(defaultValue = "0") int from,
+                                          @RequestParam(defaultValue = "10") int size) {
+        return itemService.searchItems(text, from, size);
     }
 
     @PostMapping("/{itemId}/comment")
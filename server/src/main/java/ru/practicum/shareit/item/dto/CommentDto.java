@@ -3,7 +3,6 @@ package ru.practicum.shareit.item.dto;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import ru.practicum.shareit.item.model.Item;
 
 import java.time.LocalDateTime;
 
@@ -13,7 +12,11 @@ import java.time.LocalDateTime;
 public class CommentDto {
     private int id;
     private String text;
-    private Item item;
+    private ItemShortDto item;
     private String authorName;
     private LocalDateTime created;
+
+    public CommentDto(int id, String text, int itemId, String itemName, String authorName, LocalDateTime created) {
+        this(id, text, new ItemShortDto(itemId, itemName), authorName, created);
+    }
 }
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item.dto;
+
+import java.time.LocalDateTime;
+
+public interface ItemBookingDates {
+    Integer getItemId();
+
+    LocalDateTime getLastBooking();
+
+    LocalDateTime getNextBooking();
+}
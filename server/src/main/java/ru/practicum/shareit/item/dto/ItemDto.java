@@ -1,15 +1,16 @@
 package ru.practicum.shareit.item.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import ru.practicum.shareit.request.ItemRequest;
-import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dto.UserShortDto;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
 
 @Data
@@ -29,9 +30,18 @@ public class ItemDto {
 
     @NotNull(message = "Поле available не может быть null")
     private Boolean available;
-    private User owner;
-    private ItemRequest request;
+    private UserShortDto owner;
+    private Integer requestId;
     private LocalDateTime lastBooking;
     private LocalDateTime nextBooking;
     private Collection<CommentDto> comments;
+
+    @JsonIgnore
+    private Integer version;
+
+    public ItemDto(int id, String name, String description, Boolean available,
+                   int ownerId, String ownerName, Integer requestId) {
+        this(id, name, description, available, new UserShortDto(ownerId, ownerName), requestId,
+                null, null, new ArrayList<>(), null);
+    }
 }
@@ -0,0 +1,4 @@
+package ru.practicum.shareit.item.dto;
+
+public record ItemShortDto(int id, String name) {
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item.dto;
+
+public interface RequestedItem {
+    Integer getRequestId();
+
+    Integer getItemId();
+
+    String getName();
+
+    Integer getOwnerId();
+}
@@ -3,6 +3,7 @@ package ru.practicum.shareit.item.mapper;
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 
 @Component("commentMapper")
@@ -11,17 +12,17 @@ public class CommentMapper {
         return new CommentDto(
                 comment.getId(),
                 comment.getText(),
-                comment.getItem(),
+                ItemMapper.toItemShortDto(comment.getItem()),
                 comment.getUser().getName(),
                 comment.getCreated()
         );
     }
 
-    public static Comment toComment(CommentDto commentDto, User user) {
+    public static Comment toComment(CommentDto commentDto, Item item, User user) {
         return new Comment(
                 commentDto.getId(),
                 commentDto.getText(),
-                commentDto.getItem(),
+                item,
                 user,
                 commentDto.getCreated()
         );
@@ -5,7 +5,10 @@ import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.item.dto.ItemSaveDto;
+import ru.practicum.shareit.item.dto.ItemShortDto;
+import ru.practicum.shareit.item.dto.RequestedItem;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dto.UserMapper;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -20,8 +23,8 @@ public class ItemMapper {
                 .name(item.getName())
                 .description(item.getDescription())
                 .available(item.getAvailable())
-                .owner(item.getOwner())
-                .request(item.getRequest())
+                .owner(UserMapper.toUserShortDto(item.getOwner()))
+                .requestId(item.getRequest() != null ? item.getRequest().getId() : null)
                 .comments(new ArrayList<>())
                 .nextBooking(null)
                 .lastBooking(null)
@@ -35,11 +38,12 @@ public class ItemMapper {
                 .name(item.getName())
                 .description(item.getDescription())
                 .available(item.getAvailable())
-                .owner(item.getOwner())
-                .request(item.getRequest())
+                .owner(UserMapper.toUserShortDto(item.getOwner()))
+                .requestId(item.getRequest() != null ? item.getRequest().getId() : null)
                 .comments(comments)
                 .nextBooking(nextBooking)
                 .lastBooking(lastBooking)
+                .version(item.getVersion())
                 .build();
     }
 
@@ -49,8 +53,6 @@ public class ItemMapper {
                 .name(itemDto.getName())
                 .description(itemDto.getDescription())
                 .available(itemDto.getAvailable())
-                .owner(itemDto.getOwner())
-                .request(itemDto.getRequest())
                 .build();
     }
 
@@ -63,6 +65,10 @@ public class ItemMapper {
                 .build();
     }
 
+    public static ItemShortDto toItemShortDto(Item item) {
+        return new ItemShortDto(item.getId(), item.getName());
+    }
+
     public static ItemResponseDto toItemResponseDto(Item item) {
         return ItemResponseDto.builder()
                 .itemId(item.getId())
@@ -70,6 +76,14 @@ public class ItemMapper {
                 .ownerId(item.getOwner().getId())
                 .build();
     }
+
+    public static ItemResponseDto toItemResponseDto(RequestedItem item) {
+        return ItemResponseDto.builder()
+                .itemId(item.getItemId())
+                .name(item.getName())
+                .ownerId(item.getOwnerId())
+                .build();
+    }
 }
 
 
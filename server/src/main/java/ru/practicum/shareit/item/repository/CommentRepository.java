@@ -1,12 +1,20 @@
 package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.model.Comment;
 
-import java.util.Collection;
+import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Integer> {
-    Collection<Comment> findAllByItemId(int id);
+    String SELECT_DTO = "select new ru.practicum.shareit.item.dto.CommentDto(c.id, c.text, i.id, i.name, " +
+            "u.name, c.created) " +
+            "from Comment as c join c.item as i join c.user as u ";
 
-    Collection<Comment> findAllByItemIdIn(Collection<Integer> ids);
+    @Query(SELECT_DTO + "where i.id = :itemId")
+    List<CommentDto> findCommentDtosByItemId(int itemId);
+
+    @Query(SELECT_DTO + "where i.owner.id = :ownerId")
+    List<CommentDto> findCommentDtosByItemOwnerId(int ownerId);
 }
@@ -1,20 +1,56 @@
 package ru.practicum.shareit.item.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.RequestedItem;
 import ru.practicum.shareit.item.model.Item;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
-public interface ItemRepository extends JpaRepository<Item, Integer> {
+public interface ItemRepository extends JpaRepository<Item, Integer>, ItemVersionRepository {
 
+    String SELECT_DTO = "select new ru.practicum.shareit.item.dto.ItemDto(it.id, it.name, it.description, " +
+            "it.available, o.id, o.name, r.id) " +
+            "from Item as it join it.owner as o left join it.request as r ";
+
+    @EntityGraph(attributePaths = "owner")
+    Optional<Item> findWithOwnerById(int id);
+
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("select it from Item as it where it.id = :id")
+    Optional<Item> findForUpdateById(int id);
+
+    @Query("select it.version from Item as it where it.id = :id")
+    Optional<Integer> findVersionById(int id);
+
+    @Query(SELECT_DTO + "where it.id in :ids")
+    List<ItemDto> findItemDtosByIdIn(Collection<Integer> ids);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Collection<Item> findAllByOwnerId(int userId);
 
-    @Query("select it " +
-            "from Item as it " +
-            "where it.available = true " +
-            "and lower(it.name) like lower(concat(?1, '%')) or lower(it.description) like lower(concat(?1, '%'))")
-    Collection<Item> searchItems(String text);
+    @Query("select it.id from Item as it where it.owner.id = :ownerId")
+    List<Integer> findIdsByOwnerId(int ownerId);
+
+    @Query(SELECT_DTO + "where o.id = :ownerId order by it.id")
+    List<ItemDto> findItemDtosByOwnerId(int ownerId);
+
+    boolean existsByOwnerId(int userId);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Collection<Item> findAllByRequestId(int requestId);
+
+    @Query("select it.request.id as requestId, it.id as itemId, it.name as name, it.owner.id as ownerId " +
+            "from Item as it " +
+            "where it.request.id in ?1")
+    Collection<RequestedItem> findAllByRequestIdIn(Collection<Integer> requestIds);
 }
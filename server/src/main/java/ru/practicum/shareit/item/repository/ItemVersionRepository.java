@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.repository;
+
+/**
+ * Версия вещи меняется и тогда, когда меняются её бронирования или отзывы, чтобы по ней строился ETag карточки.
+ */
+public interface ItemVersionRepository {
+
+    void incrementVersion(int id);
+
+    /**
+     * Вещи пользователя и вещи, которые он бронировал или комментировал: в их карточках видно его имя.
+     */
+    void incrementVersionsByUser(int userId);
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.item.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.db.VersionIncrement;
+import ru.practicum.shareit.item.model.Item;
+
+@RequiredArgsConstructor
+class ItemVersionRepositoryImpl implements ItemVersionRepository {
+    private final EntityManager em;
+
+    @Override
+    @Transactional
+    public void incrementVersion(int id) {
+        TypedQuery<Item> query = em.createQuery("select it from Item as it where it.id = :id", Item.class)
+                .setParameter("id", id);
+        VersionIncrement.forceIncrement(em, query, Item.class);
+    }
+
+    @Override
+    @Transactional
+    public void incrementVersionsByUser(int userId) {
+        TypedQuery<Item> query = em.createQuery("select it from Item as it " +
+                        "where it.owner.id = :userId " +
+                        "or it.id in (select c.item.id from Comment as c where c.user.id = :userId) " +
+                        "or it.id in (select b.item.id from Booking as b where b.booker.id = :userId)", Item.class)
+                .setParameter("userId", userId);
+        VersionIncrement.forceIncrement(em, query, Item.class);
+    }
+}
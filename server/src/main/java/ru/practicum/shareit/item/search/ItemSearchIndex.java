@@ -0,0 +1,180 @@
+package ru.practicum.shareit.item.search;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Инвертированный индекс по словам названия и описания вещей.
+ * Слово запроса совпадает со словом вещи, если является его префиксом; в выдачу попадают
+ * доступные вещи, содержащие все слова запроса. Совпадения в названии и точные совпадения ранжируются выше.
+ * Изменения, сделанные внутри откаченной транзакции, снимаются, поэтому индекс ссылается только на вещи из базы.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemSearchIndex {
+    private static final Pattern DELIMITER = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final int NAME = 1;
+    private static final int DESCRIPTION = 2;
+
+    private final ItemRepository itemRepository;
+    private final NavigableMap<String, Map<Integer, Integer>> postings = new TreeMap<>();
+    private final Map<Integer, Document> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @PostConstruct
+    public void warmUp() {
+        itemRepository.findAll().forEach(this::index);
+        log.info("Поисковый индекс вещей построен, вещей - {}, слов - {}", documents.size(), postings.size());
+    }
+
+    public void index(Item item) {
+        Map<String, Integer> fields = new HashMap<>();
+        tokenize(item.getName()).forEach(token -> fields.merge(token, NAME, (a, b) -> a | b));
+        tokenize(item.getDescription()).forEach(token -> fields.merge(token, DESCRIPTION, (a, b) -> a | b));
+        Document document = new Document(fields, Boolean.TRUE.equals(item.getAvailable()));
+        lock.writeLock().lock();
+        try {
+            rememberOriginal(item.getId(), removeDocument(item.getId()));
+            putDocument(item.getId(), document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Collection<Integer> itemIds) {
+        lock.writeLock().lock();
+        try {
+            itemIds.forEach(itemId -> rememberOriginal(itemId, removeDocument(itemId)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Integer> search(String text, int from, int size) {
+        List<String> queryTokens = tokenize(text).distinct().toList();
+        if (queryTokens.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, Integer> scores;
+        lock.readLock().lock();
+        try {
+            scores = score(queryTokens.get(0));
+            for (String token : queryTokens.subList(1, queryTokens.size())) {
+                if (scores.isEmpty()) {
+                    break;
+                }
+                Map<Integer, Integer> tokenScores = score(token);
+                scores.keySet().retainAll(tokenScores.keySet());
+                scores.replaceAll((itemId, score) -> score + tokenScores.get(itemId));
+            }
+            scores.keySet().removeIf(itemId -> !documents.get(itemId).available());
+        } finally {
+            lock.readLock().unlock();
+        }
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Integer, Integer>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.<Integer, Integer>comparingByKey().reversed()))
+                .skip(from)
+                .limit(size)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    private Map<Integer, Integer> score(String prefix) {
+        Map<Integer, Integer> scores = new HashMap<>();
+        postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).forEach((token, items) -> {
+            boolean exact = token.equals(prefix);
+            items.forEach((itemId, mask) -> scores.merge(itemId, weight(mask, exact), Math::max));
+        });
+        return scores;
+    }
+
+    private static int weight(int mask, boolean exact) {
+        int weight = (mask & NAME) != 0 ? 3 : 1;
+        return exact ? weight + 1 : weight;
+    }
+
+    private void putDocument(int itemId, Document document) {
+        documents.put(itemId, document);
+        document.fields().forEach((token, mask) -> postings.computeIfAbsent(token, t -> new HashMap<>())
+                .put(itemId, mask));
+    }
+
+    private Document removeDocument(int itemId) {
+        Document document = documents.remove(itemId);
+        if (document == null) {
+            return null;
+        }
+        for (String token : document.fields().keySet()) {
+            Map<Integer, Integer> items = postings.get(token);
+            items.remove(itemId);
+            if (items.isEmpty()) {
+                postings.remove(token);
+            }
+        }
+        return document;
+    }
+
+    /**
+     * Внутри транзакции запоминает, каким документ был до её первого изменения,
+     * чтобы при откате вернуть индекс к состоянию базы.
+     */
+    private void rememberOriginal(int itemId, Document original) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        Rollback rollback = TransactionSynchronizationManager.getSynchronizations().stream()
+                .filter(Rollback.class::isInstance)
+                .map(Rollback.class::cast)
+                .findFirst()
+                .orElseGet(() -> {
+                    Rollback registered = new Rollback();
+                    TransactionSynchronizationManager.registerSynchronization(registered);
+                    return registered;
+                });
+        rollback.originals.putIfAbsent(itemId, Optional.ofNullable(original));
+    }
+
+    private static Stream<String> tokenize(String text) {
+        if (text == null) {
+            return Stream.empty();
+        }
+        return DELIMITER.splitAsStream(text.toLowerCase(Locale.ROOT)).filter(token -> !token.isEmpty());
+    }
+
+    private record Document(Map<String, Integer> fields, boolean available) {
+    }
+
+    private class Rollback implements TransactionSynchronization {
+        private final Map<Integer, Optional<Document>> originals = new HashMap<>();
+
+        @Override
+        public void afterCompletion(int status) {
+            if (status == STATUS_COMMITTED) {
+                return;
+            }
+            lock.writeLock().lock();
+            try {
+                originals.forEach((itemId, original) -> {
+                    removeDocument(itemId);
+                    original.ifPresent(document -> putDocument(itemId, document));
+                });
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+}
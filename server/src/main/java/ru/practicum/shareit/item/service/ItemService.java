@@ -6,6 +6,8 @@ import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.item.dto.ItemSaveDto;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 public interface ItemService {
 
@@ -15,11 +17,17 @@ public interface ItemService {
 
     ItemDto getItemById(int id);
 
+    String getItemETag(ItemDto item);
+
+    boolean isItemETagCurrent(int id, String eTag);
+
     Collection<ItemDto> getAllItems(int userId);
 
-    Collection<ItemDto> searchItems(String text);
+    Collection<ItemDto> searchItems(String text, int from, int size);
 
     CommentDto addComment(int userId, int itemId, CommentDto comment);
 
     Collection<ItemResponseDto> getItemsByRequestId(int requestId);
+
+    Map<Integer, List<ItemResponseDto>> getItemsByRequestIds(Collection<Integer> requestIds);
 }
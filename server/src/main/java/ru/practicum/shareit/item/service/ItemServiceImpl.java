@@ -1,74 +1,105 @@
 package ru.practicum.shareit.item.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.db.OptimisticRetry;
 import ru.practicum.shareit.exception.ConditionException;
 import ru.practicum.shareit.exception.ItemNotFoundException;
 import ru.practicum.shareit.exception.ItemRequestNotFoundException;
 import ru.practicum.shareit.exception.UserNotFoundException;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemBookingDates;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.item.dto.ItemSaveDto;
+import ru.practicum.shareit.item.dto.RequestedItem;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
-import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
-import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Timed("shareit.service")
 public class ItemServiceImpl implements ItemService {
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
+    private final UserService userService;
     private final CommentRepository commentRepository;
     private final BookingRepository bookingRepository;
     private final ItemRequestRepository requestRepository;
     private final ItemMapper itemMapper;
     private final CommentMapper commentMapper;
+    private final ItemSearchIndex searchIndex;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
     public ItemDto createItem(int userId, ItemSaveDto itemDto) {
         log.info("Creating item {}, userId={}", itemDto, userId);
-        User user = userRepository.findById(userId).orElseThrow(
-                () -> new UserNotFoundException("Пользователь с id = " + userId + " не найден"));
+        User user = userService.getUser(userId);
         Item item = itemMapper.toItem(itemDto);
         item.setOwner(user);
         Integer requestId = itemDto.getRequestId();
         if (requestId != null) {
-            ItemRequest request = requestRepository.findById(requestId).orElseThrow(
+            ItemRequest request = requestRepository.findWithRequesterById(requestId).orElseThrow(
                     () -> new ItemRequestNotFoundException("Запрос с id = " + requestId + " не найден"));
             item.setRequest(request);
         }
-        log.info("Item has been created {}, userId={}", item, userId);
-        return itemMapper.toItemDto(itemRepository.save(item));
+        Item savedItem = itemRepository.save(item);
+        searchIndex.index(savedItem);
+        if (requestId != null) {
+            requestRepository.incrementVersion(requestId);
+        }
+        log.info("Item has been created {}, userId={}", savedItem, userId);
+        return itemMapper.toItemDto(savedItem);
 
     }
 
+    /**
+     * Чтение, проверка и изменение вещи выполняются в одной транзакции: версию вещи параллельно
+     * поднимают бронирования, отзывы и переименование владельца, поэтому при конфликте изменение повторяется.
+     */
     @Override
     public ItemDto updateItem(int userId, int id, ItemDto itemDto) {
-        User user = userRepository.findById(userId).orElseThrow(
-                () -> new UserNotFoundException("Пользователь с id = " + userId + " не найден"));
-        Item item = itemRepository.findById(id).orElseThrow(
+        if (!userService.existsById(userId)) {
+            throw new UserNotFoundException("Пользователь с id = " + userId + " не найден");
+        }
+        Item item = OptimisticRetry.inTransaction(transactionTemplate, status -> applyUpdate(userId, id, itemDto),
+                "Вещь с id = " + id + " одновременно изменяется другим запросом, повторите попытку");
+        searchIndex.index(item);
+        ItemDto updatedItem = itemMapper.toItemDto(item);
+        if (item.getRequest() != null) {
+            requestRepository.incrementVersion(item.getRequest().getId());
+        }
+        return updatedItem;
+    }
+
+    private Item applyUpdate(int userId, int id, ItemDto itemDto) {
+        Item item = itemRepository.findWithOwnerById(id).orElseThrow(
                 () -> new ItemNotFoundException("Вещь с id = " + id + " не найдена"));
-        item.setId(id);
-        if (user.getId() != item.getOwner().getId()) {
+        if (userId != item.getOwner().getId()) {
             throw new UserNotFoundException("Пользователь может обновлять только свои вещи");
         }
-        item.setOwner(user);
         if (itemDto.getName() != null) {
             item.setName(itemDto.getName());
         }
@@ -78,12 +109,12 @@ public class ItemServiceImpl implements ItemService {
         if (itemDto.getAvailable() != null) {
             item.setAvailable(itemDto.getAvailable());
         }
-        return itemMapper.toItemDto(itemRepository.save(item));
+        return item;
     }
 
     @Override
     public ItemDto getItemById(int id) {
-        Item item = itemRepository.findById(id).orElseThrow(
+        Item item = itemRepository.findWithOwnerById(id).orElseThrow(
                 () -> new ItemNotFoundException("Вещь с id = " + id + " не найдена"));
 
         Collection<Booking> nextBookings = bookingRepository.findAllByItemIdAndStartAfterOrderByStartAsc(id,
@@ -97,84 +128,99 @@ public class ItemServiceImpl implements ItemService {
                 .reduce((first, last) -> last)
                 .orElse(null);
 
-        Collection<Comment> comments = commentRepository.findAllByItemId(id);
-        Collection<CommentDto> commentsDto = comments.stream().map(CommentMapper::toCommentDto).toList();
+        Collection<CommentDto> comments = commentRepository.findCommentDtosByItemId(id);
 
-        ItemDto itemDto = itemMapper.toItemDto(item, lastBooking, nextBooking, commentsDto);
+        ItemDto itemDto = itemMapper.toItemDto(item, lastBooking, nextBooking, comments);
         return itemDto;
     }
 
+    /**
+     * ETag карточки вещи - её версия и начало ближайшего будущего бронирования.
+     * Новые бронирования и отзывы меняют версию, а когда ближайшее бронирование начинается, тег устаревает сам.
+     */
     @Override
-    public Collection<ItemDto> getAllItems(int userId) {
-        User user = userRepository.findById(userId).orElseThrow(
-                () -> new UserNotFoundException("Пользователь с id = " + userId + " не найден"));
-
-        Collection<ItemDto> itemsDto = itemRepository.findAllByOwnerId(userId).stream().map(ItemMapper::toItemDto).toList();
-        Collection<Integer> itemsId = itemsDto.stream().map(ItemDto::getId).toList();
-
-        Collection<Booking> futureBookings = bookingRepository
-                .findAllByItemIdInAndStartAfterOrderByStartDesc(itemsId, LocalDateTime.now());
+    public String getItemETag(ItemDto item) {
+        if (item.getNextBooking() == null) {
+            return String.valueOf(item.getVersion());
+        }
+        return item.getVersion() + "-" + item.getNextBooking();
+    }
 
-        Collection<Booking> pastBookings = bookingRepository
-                .findAllByItemIdInAndEndBeforeOrderByStartDesc(itemsId, LocalDateTime.now());
+    @Override
+    public boolean isItemETagCurrent(int id, String eTag) {
+        String[] parts = eTag.split("-", 2);
+        try {
+            int version = Integer.parseInt(parts[0]);
+            LocalDateTime nextBooking = parts.length > 1 ? LocalDateTime.parse(parts[1]) : null;
+            if (nextBooking != null && !LocalDateTime.now().isBefore(nextBooking)) {
+                return false;
+            }
+            return itemRepository.findVersionById(id).filter(current -> current == version).isPresent();
+        } catch (NumberFormatException | DateTimeParseException e) {
+            return false;
+        }
+    }
 
-        Collection<Comment> comments = commentRepository.findAllByItemIdIn(itemsId);
-        Collection<CommentDto> commentsDto = comments.stream().map(CommentMapper::toCommentDto).toList();
+    @Override
+    public Collection<ItemDto> getAllItems(int userId) {
+        if (!userService.existsById(userId)) {
+            throw new UserNotFoundException("Пользователь с id = " + userId + " не найден");
+        }
 
-        for (ItemDto itemDto : itemsDto) {
-            for (Booking futureBooking : futureBookings) {
-                if (futureBooking.getItem().getId() == itemDto.getId()) {
-                    if (itemDto.getNextBooking().isAfter(futureBooking.getStart())) {
-                        itemDto.setNextBooking(futureBooking.getStart());
-                    }
-                }
-            }
+        Map<Integer, ItemBookingDates> bookingDates = bookingRepository
+                .findItemBookingDatesByOwner(userId, LocalDateTime.now()).stream()
+                .collect(Collectors.toMap(ItemBookingDates::getItemId, Function.identity()));
 
-            for (Booking pastBooking : pastBookings) {
-                if (pastBooking.getItem().getId() == itemDto.getId()) {
-                    if (itemDto.getLastBooking().isBefore(pastBooking.getStart())) {
-                        itemDto.setLastBooking(pastBooking.getStart());
-                    }
-                }
-            }
+        Map<Integer, List<CommentDto>> comments = commentRepository.findCommentDtosByItemOwnerId(userId).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().id()));
 
-            Collection<CommentDto> commentsByItem = itemDto.getComments();
-            for (CommentDto commentDto : commentsDto) {
-                if (commentDto.getItem().getId() == itemDto.getId()) {
-                    if (commentsByItem == null) {
-                        commentsByItem = new ArrayList<>();
-                    }
-                    commentsByItem.add(commentDto);
-                }
+        List<ItemDto> items = itemRepository.findItemDtosByOwnerId(userId);
+        for (ItemDto item : items) {
+            ItemBookingDates dates = bookingDates.get(item.getId());
+            if (dates != null) {
+                item.setLastBooking(dates.getLastBooking());
+                item.setNextBooking(dates.getNextBooking());
             }
-            itemDto.setComments(commentsByItem);
+            item.setComments(comments.getOrDefault(item.getId(), new ArrayList<>()));
         }
-        return itemsDto;
+        return items;
     }
 
     @Override
-    public Collection<ItemDto> searchItems(String text) {
+    public Collection<ItemDto> searchItems(String text, int from, int size) {
+        if (from < 0 || size <= 0) {
+            throw new ConditionException("Параметр from не может быть отрицательным, а size должен быть больше 0");
+        }
         if (text.isEmpty() || text.isBlank()) {
             return new ArrayList<>();
-        } else {
-            return itemRepository.searchItems(text).stream().map(ItemMapper::toItemDto).toList();
+        }
+        while (true) {
+            List<Integer> ids = searchIndex.search(text, from, size);
+            Map<Integer, ItemDto> items = itemRepository.findItemDtosByIdIn(ids).stream()
+                    .collect(Collectors.toMap(ItemDto::getId, Function.identity()));
+            List<Integer> missing = ids.stream().filter(id -> !items.containsKey(id)).toList();
+            if (missing.isEmpty()) {
+                return ids.stream().map(items::get).toList();
+            }
+            // Вещи, которых уже нет в базе, убираются из индекса, и страница собирается заново - иначе она неполная
+            searchIndex.remove(missing);
         }
     }
 
     @Override
     public CommentDto addComment(int userId, int itemId, CommentDto comment) {
-        User user = userRepository.findById(userId).orElseThrow(
-                () -> new UserNotFoundException("Пользователь с id = " + userId + " не найден"));
-        Item item = itemRepository.findById(itemId).orElseThrow(
+        User user = userService.getUser(userId);
+        Item item = itemRepository.findWithOwnerById(itemId).orElseThrow(
                 () -> new ItemNotFoundException("Вещь с id = " + itemId + " не найдена"));
         Booking booking = bookingRepository
-                .findByBookerIdAndItemIdAndEndBeforeOrderByStartDesc(userId, itemId, LocalDateTime.now());
+                .findFirstByBookerIdAndItemIdAndEndBeforeOrderByStartDesc(userId, itemId, LocalDateTime.now());
         if (booking == null) {
             throw new ConditionException("Бронирование вещи не подтверждено");
         }
-        comment.setItem(item);
-        comment.setAuthorName(user.getName());
-        return commentMapper.toCommentDto(commentRepository.save(commentMapper.toComment(comment, user)));
+        CommentDto savedComment = commentMapper.toCommentDto(commentRepository.save(
+                commentMapper.toComment(comment, item, user)));
+        itemRepository.incrementVersion(itemId);
+        return savedComment;
     }
 
     @Override
@@ -184,4 +230,14 @@ public class ItemServiceImpl implements ItemService {
                 .toList();
         return items;
     }
+
+    @Override
+    public Map<Integer, List<ItemResponseDto>> getItemsByRequestIds(Collection<Integer> requestIds) {
+        if (requestIds.isEmpty()) {
+            return Map.of();
+        }
+        return itemRepository.findAllByRequestIdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(RequestedItem::getRequestId,
+                        Collectors.mapping(ItemMapper::toItemResponseDto, Collectors.toList())));
+    }
 }
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.pagination;
+
+import lombok.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.exception.ConditionException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.function.Function;
+
+@Value
+public class KeysetCursor {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final KeysetCursor FIRST = new KeysetCursor(LocalDateTime.of(9999, 12, 31, 0, 0),
+            Integer.MAX_VALUE);
+
+    private static final String SEPARATOR = "|";
+
+    LocalDateTime time;
+    int id;
+
+    public static KeysetCursor decode(String token) {
+        if (token == null) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf(SEPARATOR);
+            return new KeysetCursor(LocalDateTime.parse(value.substring(0, separator)),
+                    Integer.parseInt(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new ConditionException("Некорректное значение параметра cursor: " + token);
+        }
+    }
+
+    public static KeysetCursor orFirst(KeysetCursor cursor) {
+        return cursor != null ? cursor : FIRST;
+    }
+
+    public static Pageable toPage(int from, int size, KeysetCursor cursor) {
+        if (from < 0 || size <= 0) {
+            throw new ConditionException("Параметр from не может быть отрицательным, а size должен быть больше 0");
+        }
+        return new OffsetPageRequest(cursor != null ? 0 : from, size);
+    }
+
+    public static <T> ResponseEntity<Collection<T>> withNextCursor(Collection<T> page, int size,
+                                                                   Function<T, KeysetCursor> cursorOf) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.size() == size) {
+            T last = page.stream().reduce((first, second) -> second).orElseThrow();
+            response.header(NEXT_CURSOR_HEADER, cursorOf.apply(last).encode());
+        }
+        return response.body(page);
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((time + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
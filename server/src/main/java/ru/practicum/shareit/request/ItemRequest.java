@@ -23,11 +23,15 @@ public class ItemRequest {
     @Column(name = "description")
     private String description;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "requester_id")
     private User requester;
 
     @Column(name = "date_created")
     @CreationTimestamp
     private LocalDateTime created = LocalDateTime.now();
+
+    @Version
+    @Column(name = "version")
+    private Integer version;
 }
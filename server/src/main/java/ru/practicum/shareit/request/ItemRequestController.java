@@ -1,11 +1,15 @@
 package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
 import java.util.Collection;
+import java.util.Optional;
 
 @RestController
 @RequestMapping(path = "/requests")
@@ -25,12 +29,23 @@ public class ItemRequestController {
     }
 
     @GetMapping("/all")
-    public Collection<ItemRequestDto> getAllRequests(@RequestHeader("X-Sharer-User-Id") int userId) {
-        return requestService.getAllRequests(userId);
+    public ResponseEntity<Collection<ItemRequestDto>> getAllRequests(
+            @RequestHeader("X-Sharer-User-Id") int userId,
+            @RequestParam(defaultValue = "0") int from,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor) {
+        Collection<ItemRequestDto> requests = requestService.getAllRequests(userId, from, size,
+                KeysetCursor.decode(cursor));
+        return KeysetCursor.withNextCursor(requests, size, request -> new KeysetCursor(request.getCreated(),
+                request.getId()));
     }
 
     @GetMapping("/{requestId}")
-    public ItemRequestDto getRequestById(@PathVariable("requestId") int requestId) {
+    public ItemRequestDto getRequestById(@PathVariable("requestId") int requestId, WebRequest request) {
+        Optional<String> eTag = requestService.getRequestETag(requestId);
+        if (eTag.isPresent() && request.checkNotModified(eTag.get())) {
+            return null;
+        }
         return requestService.getRequestById(requestId);
     }
 }
@@ -1,12 +1,33 @@
 package ru.practicum.shareit.request;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
-public interface ItemRequestRepository extends JpaRepository<ItemRequest, Integer> {
+public interface ItemRequestRepository extends JpaRepository<ItemRequest, Integer>, ItemRequestVersionRepository {
 
+    @EntityGraph(attributePaths = "requester")
+    Optional<ItemRequest> findWithRequesterById(int id);
+
+    @Query("select concat(cast(r.version as String), '-', cast(u.version as String)) " +
+            "from ItemRequest as r join r.requester as u " +
+            "where r.id = :id")
+    Optional<String> findVersionTagById(int id);
+
+    @EntityGraph(attributePaths = "requester")
     Collection<ItemRequest> findAllByRequesterIdOrderByCreatedDesc(int requestId);
 
-    Collection<ItemRequest> findAllByRequesterIdNotOrderByCreatedDesc(int requestId);
+    @EntityGraph(attributePaths = "requester")
+    @Query("select r from ItemRequest as r " +
+            "where r.requester.id <> :requesterId " +
+            "and (r.created < :cursorCreated or (r.created = :cursorCreated and r.id < :cursorId)) " +
+            "order by r.created desc, r.id desc")
+    List<ItemRequest> findOtherUsersRequests(int requesterId, LocalDateTime cursorCreated, int cursorId,
+                                             Pageable page);
 }
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.request;
+
+/**
+ * Версия запроса меняется и тогда, когда меняются вещи, созданные в ответ на него.
+ */
+public interface ItemRequestVersionRepository {
+
+    void incrementVersion(int id);
+
+    void incrementVersionsByItemOwner(int ownerId);
+}
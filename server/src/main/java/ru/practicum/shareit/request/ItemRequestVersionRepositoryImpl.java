@@ -0,0 +1,31 @@
+package ru.practicum.shareit.request;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.db.VersionIncrement;
+
+@RequiredArgsConstructor
+class ItemRequestVersionRepositoryImpl implements ItemRequestVersionRepository {
+    private final EntityManager em;
+
+    @Override
+    @Transactional
+    public void incrementVersion(int id) {
+        TypedQuery<ItemRequest> query = em.createQuery("select r from ItemRequest as r where r.id = :id",
+                        ItemRequest.class)
+                .setParameter("id", id);
+        VersionIncrement.forceIncrement(em, query, ItemRequest.class);
+    }
+
+    @Override
+    @Transactional
+    public void incrementVersionsByItemOwner(int ownerId) {
+        TypedQuery<ItemRequest> query = em.createQuery("select r from ItemRequest as r " +
+                        "where r.id in (select it.request.id from Item as it where it.owner.id = :ownerId)",
+                        ItemRequest.class)
+                .setParameter("ownerId", ownerId);
+        VersionIncrement.forceIncrement(em, query, ItemRequest.class);
+    }
+}
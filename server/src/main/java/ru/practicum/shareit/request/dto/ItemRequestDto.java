@@ -7,7 +7,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
-import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dto.UserShortDto;
 
 import java.time.LocalDateTime;
 import java.util.Collection;
@@ -23,7 +23,7 @@ public class ItemRequestDto {
     @NotBlank(message = "Поле description не может быть пустым")
     private String description;
 
-    private User requester;
+    private UserShortDto requester;
 
     private LocalDateTime created;
 
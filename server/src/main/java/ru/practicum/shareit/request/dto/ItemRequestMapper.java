@@ -2,8 +2,15 @@ package ru.practicum.shareit.request.dto;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dto.UserMapper;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 @Component("itemRequestMapper")
 @RequiredArgsConstructor
@@ -14,26 +21,34 @@ public class ItemRequestMapper {
         return ItemRequestDto.builder()
                 .id(itemRequest.getId())
                 .description(itemRequest.getDescription())
-                .requester(itemRequest.getRequester())
+                .requester(UserMapper.toUserShortDto(itemRequest.getRequester()))
                 .created(itemRequest.getCreated())
                 .build();
     }
 
     public ItemRequestDto toItemRequestDtoWithResponse(ItemRequest itemRequest) {
-        return ItemRequestDto.builder()
-                .id(itemRequest.getId())
-                .description(itemRequest.getDescription())
-                .requester(itemRequest.getRequester())
-                .created(itemRequest.getCreated())
-                .items(itemService.getItemsByRequestId(itemRequest.getId()))
-                .build();
+        return toItemRequestDtoWithResponse(List.of(itemRequest)).get(0);
+    }
+
+    public List<ItemRequestDto> toItemRequestDtoWithResponse(Collection<ItemRequest> itemRequests) {
+        Map<Integer, List<ItemResponseDto>> items = itemService.getItemsByRequestIds(itemRequests.stream()
+                .map(ItemRequest::getId)
+                .toList());
+        return itemRequests.stream()
+                .map(itemRequest -> ItemRequestDto.builder()
+                        .id(itemRequest.getId())
+                        .description(itemRequest.getDescription())
+                        .requester(UserMapper.toUserShortDto(itemRequest.getRequester()))
+                        .created(itemRequest.getCreated())
+                        .items(items.getOrDefault(itemRequest.getId(), List.of()))
+                        .build())
+                .toList();
     }
 
-    public ItemRequest toItemRequest(ItemRequestDto itemRequestDto) {
+    public ItemRequest toItemRequest(ItemRequestDto itemRequestDto, User requester) {
         return ItemRequest.builder()
-                .id(itemRequestDto.getId())
                 .description(itemRequestDto.getDescription())
-                .requester(itemRequestDto.getRequester())
+                .requester(requester)
                 .created(itemRequestDto.getCreated())
                 .build();
     }
@@ -1,15 +1,19 @@
 package ru.practicum.shareit.request.service;
 
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.util.Collection;
+import java.util.Optional;
 
 public interface ItemRequestService {
     ItemRequestDto createRequest(int userId, ItemRequestDto itemRequestDto);
 
     Collection<ItemRequestDto> getAllRequestsByUser(int userId);
 
-    Collection<ItemRequestDto> getAllRequests(int userId);
+    Collection<ItemRequestDto> getAllRequests(int userId, int from, int size, KeysetCursor cursor);
 
     ItemRequestDto getRequestById(int requestId);
+
+    Optional<String> getRequestETag(int requestId);
 }
@@ -1,55 +1,54 @@
 package ru.practicum.shareit.request.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.exception.ItemRequestNotFoundException;
 import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestMapper;
-import ru.practicum.shareit.user.User;
-import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
 
 import java.util.Collection;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
+@Timed("shareit.service")
 public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRequestRepository requestRepository;
-    private final UserRepository userRepository;
+    private final UserService userService;
     private final ItemRequestMapper requestMapper;
 
     @Override
     public ItemRequestDto createRequest(int userId, ItemRequestDto itemRequest) {
-        User user = getUserById(userId);
-        itemRequest.setRequester(user);
-        return requestMapper.toItemRequestDto(requestRepository.save(requestMapper.toItemRequest(itemRequest)));
+        ItemRequest request = requestMapper.toItemRequest(itemRequest, userService.getUser(userId));
+        return requestMapper.toItemRequestDto(requestRepository.save(request));
     }
 
     @Override
     public Collection<ItemRequestDto> getAllRequestsByUser(int userId) {
-        User user = getUserById(userId);
-        Collection<ItemRequestDto> requests = requestRepository
-                .findAllByRequesterIdOrderByCreatedDesc(userId).stream()
-                .map(requestMapper::toItemRequestDtoWithResponse)
-                .toList();
-        return requests;
+        checkUserExists(userId);
+        return requestMapper.toItemRequestDtoWithResponse(requestRepository
+                .findAllByRequesterIdOrderByCreatedDesc(userId));
     }
 
     @Override
-    public Collection<ItemRequestDto> getAllRequests(int userId) {
-        User user = getUserById(userId);
-        Collection<ItemRequestDto> requests = requestRepository
-                .findAllByRequesterIdNotOrderByCreatedDesc(userId).stream()
-                .map(requestMapper::toItemRequestDtoWithResponse)
-                .toList();
-        return requests;
+    public Collection<ItemRequestDto> getAllRequests(int userId, int from, int size, KeysetCursor cursor) {
+        checkUserExists(userId);
+        Pageable page = KeysetCursor.toPage(from, size, cursor);
+        KeysetCursor after = KeysetCursor.orFirst(cursor);
+        return requestMapper.toItemRequestDtoWithResponse(requestRepository
+                .findOtherUsersRequests(userId, after.getTime(), after.getId(), page));
     }
 
     @Override
     public ItemRequestDto getRequestById(int requestId) {
-        ItemRequest itemRequest = requestRepository.findById(requestId).orElseThrow(
+        ItemRequest itemRequest = requestRepository.findWithRequesterById(requestId).orElseThrow(
                 () -> new ItemRequestNotFoundException("Запрос с id = " + requestId + " не найден"));
         /*Collection<Item> itemsResponse = itemRepository.findAllByRequestId(requestId);
         Collection<ItemResponseDto> itemsResponseDto = itemsResponse.stream()
@@ -58,8 +57,14 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         return requestMapper.toItemRequestDtoWithResponse(itemRequest);
     }
 
-    private User getUserById(int userId) {
-        return userRepository.findById(userId).orElseThrow(
-                () -> new UserNotFoundException("Пользователь с id = " + userId + " не найден"));
+    @Override
+    public Optional<String> getRequestETag(int requestId) {
+        return requestRepository.findVersionTagById(requestId);
+    }
+
+    private void checkUserExists(int userId) {
+        if (!userService.existsById(userId)) {
+            throw new UserNotFoundException("Пользователь с id = " + userId + " не найден");
+        }
     }
 }
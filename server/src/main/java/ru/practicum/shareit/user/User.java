@@ -25,4 +25,8 @@ public class User {
     @Email(message = "Некорректный формат email")
     @Column(name = "email")
     private String email;
+
+    @Version
+    @Column(name = "version")
+    private Integer version;
 }
\ No newline at end of file
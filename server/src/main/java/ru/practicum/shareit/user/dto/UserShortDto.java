@@ -0,0 +1,4 @@
+package ru.practicum.shareit.user.dto;
+
+public record UserShortDto(int id, String name) {
+}
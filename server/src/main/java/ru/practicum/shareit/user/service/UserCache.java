@@ -0,0 +1,66 @@
+package ru.practicum.shareit.user.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.user.User;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Кэш пользователей для проверки заголовка X-Sharer-User-Id.
+ * Отсутствующие пользователи не кэшируются, наружу отдаются копии, чтобы изменения сущности не попадали в кэш.
+ * Загрузка из базы идёт вне блокировок Caffeine, чтобы JDBC не держал carrier-поток виртуального потока.
+ * Если за время загрузки кэш сбрасывался, загруженная копия могла устареть и в кэше не остаётся.
+ */
+@Component
+public class UserCache {
+    private final Cache<Integer, User> users;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public UserCache(@Value("${shareit.cache.users.maximum-size:10000}") long maximumSize,
+                     @Value("${shareit.cache.users.expire-after-write:10m}") Duration expireAfterWrite,
+                     MeterRegistry meterRegistry) {
+        users = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, users, "users", "cache.manager", "userCache");
+    }
+
+    public Optional<User> get(int id, Function<Integer, Optional<User>> loader) {
+        User cached = users.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(copy(cached));
+        }
+        long generation = invalidations.get();
+        Optional<User> user = loader.apply(id);
+        user.ifPresent(loaded -> {
+            users.asMap().putIfAbsent(id, copy(loaded));
+            if (invalidations.get() != generation) {
+                users.invalidate(id);
+            }
+        });
+        return user.map(UserCache::copy);
+    }
+
+    public void put(User user) {
+        users.put(user.getId(), copy(user));
+    }
+
+    public void invalidate(int id) {
+        invalidations.incrementAndGet();
+        users.invalidate(id);
+    }
+
+    private static User copy(User user) {
+        return new User(user.getId(), user.getName(), user.getEmail(), user.getVersion());
+    }
+}
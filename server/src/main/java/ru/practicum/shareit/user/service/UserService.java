@@ -1,5 +1,6 @@
 package ru.practicum.shareit.user.service;
 
+import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.Collection;
@@ -9,6 +10,12 @@ public interface UserService {
 
     UserDto getUserById(int id);
 
+    User getUser(int id);
+
+    String getUserETag(int id);
+
+    boolean existsById(int id);
+
     UserDto createUser(UserDto user);
 
     UserDto updateUser(int id, UserDto user);
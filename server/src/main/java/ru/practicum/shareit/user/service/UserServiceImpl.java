@@ -1,21 +1,37 @@
 package ru.practicum.shareit.user.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.index.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.exception.DuplicateDataException;
 import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
+@Timed("shareit.service")
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final UserCache userCache;
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository requestRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BookingAvailabilityIndex availabilityIndex;
+    private final ItemSearchIndex searchIndex;
 
     @Override
     public Collection<UserDto> getAllUsers() {
@@ -24,13 +40,30 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public UserDto getUserById(int id) {
-        return userMapper.toUserDto(userRepository.findById(id).orElseThrow(
-                () -> new UserNotFoundException("Пользователь с id = " + id + " не найден")));
+        return userMapper.toUserDto(getUser(id));
+    }
+
+    @Override
+    public User getUser(int id) {
+        return userCache.get(id, userRepository::findById).orElseThrow(
+                () -> new UserNotFoundException("Пользователь с id = " + id + " не найден"));
+    }
+
+    @Override
+    public String getUserETag(int id) {
+        return String.valueOf(getUser(id).getVersion());
+    }
+
+    @Override
+    public boolean existsById(int id) {
+        return userCache.get(id, userRepository::findById).isPresent();
     }
 
     @Override
     public UserDto createUser(UserDto user) {
-        return userMapper.toUserDto(userRepository.save(userMapper.toUser(user)));
+        User savedUser = userRepository.save(userMapper.toUser(user));
+        userCache.put(savedUser);
+        return userMapper.toUserDto(savedUser);
     }
 
     @Override
@@ -55,11 +88,32 @@ public class UserServiceImpl implements UserService {
                         "Обновление невозможно");
             }
         }
-        return userMapper.toUserDto(userRepository.save(user));
+        User savedUser = userRepository.save(user);
+        userCache.invalidate(id);
+        if (userDto.getName() != null) {
+            itemRepository.incrementVersionsByUser(id);
+        }
+        return userMapper.toUserDto(savedUser);
     }
 
+    /**
+     * Бронирования пользователя, его вещи и их бронирования удаляются каскадом в базе, поэтому
+     * занятые ими периоды освобождаются в индексе доступности, а вещи - в поисковом индексе
+     * только после фиксации удаления.
+     */
     @Override
     public void deleteUser(int id) {
-        userRepository.deleteById(id);
+        List<Integer> itemIds = new ArrayList<>();
+        Collection<Booking> reservations = transactionTemplate.execute(status -> {
+            Collection<Booking> userReservations = availabilityIndex.findReservationsOfUser(id);
+            itemIds.addAll(itemRepository.findIdsByOwnerId(id));
+            itemRepository.incrementVersionsByUser(id);
+            requestRepository.incrementVersionsByItemOwner(id);
+            userRepository.deleteById(id);
+            return userReservations;
+        });
+        userCache.invalidate(id);
+        reservations.forEach(availabilityIndex::release);
+        searchIndex.remove(itemIds);
     }
-}
\ No newline at end of file
+}
@@ -1,9 +1,3 @@
-DROP TABLE IF EXISTS users CASCADE;
-DROP TABLE IF EXISTS requests CASCADE;
-DROP TABLE IF EXISTS items CASCADE;
-DROP TABLE IF EXISTS bookings CASCADE;
-DROP TABLE IF EXISTS comments CASCADE;
-
 CREATE TABLE IF NOT EXISTS users (
     user_id int generated by default as identity primary key,
     user_name varchar(255) not null,
@@ -17,6 +11,8 @@ CREATE TABLE IF NOT EXISTS requests (
     date_created timestamp without time zone
 );
 
+CREATE INDEX IF NOT EXISTS requests_date_created_idx ON requests (date_created DESC, request_id DESC);
+
 CREATE TABLE IF NOT EXISTS items (
     item_id int generated by default as identity primary key,
     item_name varchar(255) not null,
@@ -41,4 +37,4 @@ CREATE TABLE IF NOT EXISTS comments (
     item_id int not null REFERENCES items (item_id) on delete cascade,
     author_id int not null REFERENCES users (user_id) on delete cascade,
     created timestamp without time zone
-);
\ No newline at end of file
+);
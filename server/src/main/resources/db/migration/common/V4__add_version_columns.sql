@@ -0,0 +1,3 @@
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS version int not null default 0;
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS version int not null default 0;
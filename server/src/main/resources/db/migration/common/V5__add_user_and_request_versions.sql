@@ -0,0 +1,3 @@
+ALTER TABLE users ADD COLUMN IF NOT EXISTS version int not null default 0;
+
+ALTER TABLE requests ADD COLUMN IF NOT EXISTS version int not null default 0;
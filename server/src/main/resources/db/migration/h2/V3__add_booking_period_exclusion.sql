@@ -0,0 +1,2 @@
+-- В H2 нет диапазонных типов и ограничений EXCLUDE: пересечения бронирований
+-- во встроенной базе проверяет только BookingAvailabilityIndex.
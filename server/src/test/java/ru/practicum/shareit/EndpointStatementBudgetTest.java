@@ -0,0 +1,93 @@
+package ru.practicum.shareit;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.db.DbStatisticsFilter;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.user.User;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Бюджет запросов к базе на HTTP-запрос по заголовку X-DB-Statements. Данных больше, чем помещается
+ * в бюджет при N+1, поэтому ленивая загрузка связей в цикле сразу выводит тест за пределы бюджета.
+ */
+@Transactional
+@SpringBootTest(properties = "jdbc.url=jdbc:postgresql://localhost:5432/test")
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class EndpointStatementBudgetTest {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    private final EntityManager em;
+    private final ItemSearchIndex searchIndex;
+    private final MockMvc mvc;
+
+    private StatementFixture fixture;
+
+    @BeforeEach
+    void setUp() {
+        fixture = new StatementFixture(em, searchIndex);
+    }
+
+    @Test
+    void userEndpointsTest() {
+        assertBudget("/users/" + fixture.getOwner().getId(), fixture.getOwner(), 1);
+        assertBudget("/users", fixture.getOwner(), 1);
+    }
+
+    @Test
+    void itemEndpointsTest() {
+        assertBudget("/items/" + fixture.getItems().get(0).getId(), fixture.getOwner(), 3);
+        assertBudget("/items", fixture.getOwner(), 4);
+        assertBudget("/items/search?text=дрель", fixture.getBooker(), 1);
+    }
+
+    @Test
+    void bookingEndpointsTest() {
+        assertBudget("/bookings/" + fixture.getBooking().getId(), fixture.getBooker(), 3);
+        assertBudget("/bookings", fixture.getBooker(), 1);
+        assertBudget("/bookings/owner", fixture.getOwner(), 3);
+    }
+
+    @Test
+    void requestEndpointsTest() {
+        assertBudget("/requests", fixture.getRequester(), 3);
+        assertBudget("/requests/all", fixture.getOwner(), 3);
+        assertBudget("/requests/" + fixture.getRequest().getId(), fixture.getRequester(), 3);
+    }
+
+    @Test
+    void dbTimeHeaderTest() throws Exception {
+        MvcResult result = mvc.perform(get("/users/" + fixture.getOwner().getId()))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertThat(result.getResponse().getHeader(DbStatisticsFilter.TIME_HEADER), matchesPattern("\\d+\\.\\d{3}"));
+    }
+
+    @SneakyThrows
+    private void assertBudget(String url, User user, int budget) {
+        em.clear();
+        MvcResult result = mvc.perform(get(url).header(USER_ID_HEADER, user.getId()))
+                .andExpect(status().isOk())
+                .andReturn();
+        String statements = result.getResponse().getHeader(DbStatisticsFilter.STATEMENTS_HEADER);
+        assertThat(url, statements, notNullValue());
+        assertThat(url, Integer.parseInt(statements), lessThanOrEqualTo(budget));
+    }
+}
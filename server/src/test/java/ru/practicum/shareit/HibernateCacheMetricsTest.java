@@ -0,0 +1,51 @@
+package ru.practicum.shareit;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.user.User;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "jdbc.url=jdbc:postgresql://localhost:5432/test",
+        "spring.jpa.properties.hibernate.generate_statistics=false"})
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class HibernateCacheMetricsTest {
+    private final EntityManager em;
+    private final TransactionTemplate transactionTemplate;
+    private final MockMvc mvc;
+
+    @SneakyThrows
+    @Test
+    void secondLevelCacheMetricsPublishedTest() {
+        User user = User.builder().name("metrics").email("cache-metrics@yandex.ru").build();
+        transactionTemplate.executeWithoutResult(status -> em.persist(user));
+        try {
+            transactionTemplate.executeWithoutResult(status -> em.find(User.class, user.getId()));
+            transactionTemplate.executeWithoutResult(status -> em.find(User.class, user.getId()));
+
+            mvc.perform(get("/actuator/prometheus"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string(containsString(
+                            "cache_gets_total{cache=\"items\",cache_manager=\"hibernateCacheManager\",result=\"miss\"}")))
+                    .andExpect(content().string(matchesPattern(
+                            "(?s).*cache_gets_total\\{cache=\"users\",cache_manager=\"hibernateCacheManager\",result=\"hit\"} [1-9].*")));
+        } finally {
+            transactionTemplate.executeWithoutResult(status -> em.remove(em.find(User.class, user.getId())));
+        }
+    }
+}
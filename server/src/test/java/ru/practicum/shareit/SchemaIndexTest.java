@@ -0,0 +1,83 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsStringIgnoringCase;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+
+@SpringBootTest(
+        properties = "jdbc.url=jdbc:postgresql://localhost:5432/test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class SchemaIndexTest {
+    private static final String TABLE_SCAN = "tableScan";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Test
+    void bookerBookingsTest() {
+        assertThat(indexColumns("bookings_booker_start_idx"),
+                equalTo(List.of("BOOKER_ID", "START_DATE", "BOOKING_ID")));
+        assertThat(indexColumns("bookings_booker_status_start_idx"),
+                equalTo(List.of("BOOKER_ID", "STATUS", "START_DATE", "BOOKING_ID")));
+        assertThat(explain("select * from bookings where booker_id = 1 and status = 'WAITING' " +
+                "order by start_date desc, booking_id desc limit 10"), not(containsStringIgnoringCase(TABLE_SCAN)));
+    }
+
+    @Test
+    void ownerBookingsTest() {
+        assertThat(indexColumns("items_owner_idx"), equalTo(List.of("OWNER_ID", "ITEM_ID")));
+        assertThat(indexColumns("bookings_item_start_idx"), equalTo(List.of("ITEM_ID", "START_DATE", "BOOKING_ID")));
+        assertThat(explain("select b.* from bookings b join items i on i.item_id = b.item_id " +
+                        "where i.owner_id = 1 order by b.start_date desc, b.booking_id desc limit 10"),
+                not(containsStringIgnoringCase(TABLE_SCAN)));
+    }
+
+    @Test
+    void requestItemsTest() {
+        assertThat(indexColumns("items_request_idx"), equalTo(List.of("REQUEST_ID")));
+        assertThat(explain("select * from items where request_id in (1, 2, 3)"),
+                not(containsStringIgnoringCase(TABLE_SCAN)));
+    }
+
+    @Test
+    void itemCommentsTest() {
+        assertThat(indexColumns("comments_item_idx"), equalTo(List.of("ITEM_ID")));
+        assertThat(explain("select * from comments where item_id in (1, 2, 3)"),
+                not(containsStringIgnoringCase(TABLE_SCAN)));
+    }
+
+    @Test
+    void userRequestsTest() {
+        assertThat(indexColumns("requests_requester_created_idx"), equalTo(List.of("REQUESTER_ID", "DATE_CREATED")));
+        assertThat(explain("select * from requests where requester_id = 1 order by date_created desc"),
+                not(containsStringIgnoringCase(TABLE_SCAN)));
+    }
+
+    @Test
+    void ownerBookingsByStatusTest() {
+        assertThat(indexColumns("bookings_status_idx"), empty());
+        assertThat(explain("select b.* from bookings b join items i on i.item_id = b.item_id " +
+                        "where i.owner_id = 1 and b.status = 'WAITING' " +
+                        "order by b.start_date desc, b.booking_id desc limit 10"),
+                not(containsStringIgnoringCase(TABLE_SCAN)));
+    }
+
+    private List<String> indexColumns(String index) {
+        return jdbcTemplate.queryForList("select column_name from information_schema.index_columns " +
+                "where lower(index_name) = ? order by ordinal_position", String.class, index);
+    }
+
+    private String explain(String sql) {
+        return String.join("\n", jdbcTemplate.queryForList("explain " + sql, String.class));
+    }
+}
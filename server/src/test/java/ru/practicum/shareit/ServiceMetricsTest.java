@@ -0,0 +1,56 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Transactional
+@SpringBootTest(
+        properties = "jdbc.url=jdbc:postgresql://localhost:5432/test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class ServiceMetricsTest {
+    private final MeterRegistry meterRegistry;
+    private final UserService userService;
+
+    @Test
+    void serviceMethodTimedByOutcomeTest() {
+        long created = serviceCalls("createUser", "none");
+        long notFound = serviceCalls("getUserById", "UserNotFoundException");
+
+        UserDto user = userService.createUser(new UserDto(0, "metrics", "metrics@yandex.ru"));
+        assertThrows(UserNotFoundException.class, () -> userService.getUserById(user.getId() + 1));
+
+        assertThat(serviceCalls("createUser", "none"), equalTo(created + 1));
+        assertThat(serviceCalls("getUserById", "UserNotFoundException"), equalTo(notFound + 1));
+    }
+
+    @Test
+    void repositoryMethodTimedTest() {
+        userService.createUser(new UserDto(0, "repository", "repository@yandex.ru"));
+
+        assertThat(meterRegistry.get("spring.data.repository.invocations")
+                .tags("repository", "UserRepository", "method", "save", "state", "SUCCESS")
+                .timer().count(), greaterThan(0L));
+    }
+
+    private long serviceCalls(String method, String exception) {
+        Timer timer = meterRegistry.find("shareit.service")
+                .tags("class", "ru.practicum.shareit.user.service.UserServiceImpl", "method", method,
+                        "exception", exception)
+                .timer();
+        return timer != null ? timer.count() : 0;
+    }
+}
@@ -1,13 +1,26 @@
 package ru.practicum.shareit;
 
+import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.AsyncTaskExecutor;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
 
 @SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
 class ShareItTests {
+	private final AsyncTaskExecutor applicationTaskExecutor;
 
 	@Test
 	void contextLoads() {
 	}
 
+	@Test
+	void taskExecutorUsesVirtualThreadsTest() throws Exception {
+		assertThat(applicationTaskExecutor.submit(() -> Thread.currentThread().isVirtual()).get(), is(true));
+	}
+
 }
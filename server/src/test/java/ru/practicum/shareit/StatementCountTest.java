@@ -0,0 +1,100 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.service.UserCache;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+@Transactional
+@SpringBootTest(
+        properties = "jdbc.url=jdbc:postgresql://localhost:5432/test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class StatementCountTest {
+    private final EntityManager em;
+    private final ObjectMapper objectMapper;
+    private final ItemService itemService;
+    private final BookingService bookingService;
+    private final ItemRequestService requestService;
+    private final ItemSearchIndex searchIndex;
+    private final UserCache userCache;
+
+    private Statistics statistics;
+    private StatementFixture fixture;
+
+    @BeforeEach
+    void setUp() {
+        statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        fixture = new StatementFixture(em, searchIndex);
+        // пользователи в кэше, как после создания через UserService: считаются только запросы самих методов
+        List.of(fixture.getOwner(), fixture.getBooker(), fixture.getRequester()).forEach(userCache::put);
+    }
+
+    @Test
+    void getBookingsByBookerTest() {
+        assertThat(statements(() -> bookingService.getAllBookingsByUser(fixture.getBooker().getId(), BookingState.ALL,
+                0, 10, null)), equalTo(1L));
+    }
+
+    @Test
+    void getBookingsByOwnerTest() {
+        assertThat(statements(() -> bookingService.getAllBookingsByUserItems(fixture.getOwner().getId(), BookingState.ALL,
+                0, 10, null)), equalTo(2L));
+    }
+
+    @Test
+    void getBookingByIdTest() {
+        assertThat(statements(() -> bookingService.getBookingById(fixture.getBooker().getId(),
+                fixture.getBooking().getId())), equalTo(1L));
+    }
+
+    @Test
+    void getItemByIdTest() {
+        assertThat(statements(() -> itemService.getItemById(fixture.getItems().get(0).getId())), equalTo(3L));
+    }
+
+    @Test
+    void getAllItemsTest() {
+        assertThat(statements(() -> itemService.getAllItems(fixture.getOwner().getId())), equalTo(3L));
+    }
+
+    @Test
+    void searchItemsTest() {
+        assertThat(statements(() -> itemService.searchItems("дрель", 0, 10)), equalTo(1L));
+    }
+
+    @Test
+    void getRequestsTest() {
+        assertThat(statements(() -> requestService.getAllRequestsByUser(fixture.getRequester().getId())), equalTo(2L));
+        assertThat(statements(() -> requestService.getAllRequests(fixture.getOwner().getId(), 0, 10, null)), equalTo(2L));
+        assertThat(statements(() -> requestService.getRequestById(fixture.getRequest().getId())), equalTo(2L));
+    }
+
+    @SneakyThrows
+    private long statements(Supplier<?> call) {
+        em.flush();
+        em.clear();
+        statistics.clear();
+        objectMapper.writeValueAsString(call.get());
+        return statistics.getPrepareStatementCount();
+    }
+}
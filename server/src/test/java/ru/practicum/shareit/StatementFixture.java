@@ -0,0 +1,69 @@
+package ru.practicum.shareit;
+
+import jakarta.persistence.EntityManager;
+import lombok.Getter;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Общие данные тестов числа запросов к базе: вещи владельца созданы по запросу, у каждой есть прошлое
+ * и будущее бронирования и два отзыва. Вещей несколько, поэтому ленивая загрузка связей в цикле
+ * (N+1) сразу увеличивает число запросов. Данные создаются в транзакции теста и откатываются вместе с ней.
+ */
+@Getter
+public class StatementFixture {
+    public static final int ITEMS = 5;
+
+    private final User owner;
+    private final User booker;
+    private final User requester;
+    private final ItemRequest request;
+    private final List<Item> items = new ArrayList<>();
+    private Booking booking;
+
+    public StatementFixture(EntityManager em, ItemSearchIndex searchIndex) {
+        owner = persist(em, User.builder().name("owner").email("owner@yandex.ru").build());
+        booker = persist(em, User.builder().name("booker").email("booker@yandex.ru").build());
+        requester = persist(em, User.builder().name("requester").email("requester@yandex.ru").build());
+        request = persist(em, ItemRequest.builder()
+                .description("Нужна дрель")
+                .requester(requester)
+                .created(LocalDateTime.now())
+                .build());
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < ITEMS; i++) {
+            Item item = persist(em, Item.builder()
+                    .name("дрель " + i)
+                    .description("аккумуляторная дрель")
+                    .available(true)
+                    .owner(owner)
+                    .request(request)
+                    .build());
+            items.add(item);
+            searchIndex.index(item);
+            booking = persist(em, new Booking(0, now.minusDays(i + 2), now.minusDays(i + 1), item, booker,
+                    BookingStatus.APPROVED, null));
+            persist(em, new Booking(0, now.plusDays(i + 1), now.plusDays(i + 2), item, booker,
+                    BookingStatus.WAITING, null));
+            persist(em, new Comment(0, "отличная дрель", item, booker, now));
+            persist(em, new Comment(0, "шумная дрель", item, booker, now));
+        }
+        em.flush();
+        em.clear();
+    }
+
+    private static <T> T persist(EntityManager em, T entity) {
+        em.persist(entity);
+        return entity;
+    }
+}
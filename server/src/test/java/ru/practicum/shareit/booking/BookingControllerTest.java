@@ -9,13 +9,16 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingAvailabilityDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
-import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.item.dto.ItemShortDto;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.user.dto.UserShortDto;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
@@ -48,8 +51,8 @@ public class BookingControllerTest {
         bookingDto.setId(1);
         bookingDto.setStart(LocalDateTime.now());
         bookingDto.setEnd(LocalDateTime.now().plusDays(1));
-        bookingDto.setItem(new Item());
-        bookingDto.setBooker(new User());
+        bookingDto.setItem(new ItemShortDto(1, "name"));
+        bookingDto.setBooker(new UserShortDto(1, "Julie"));
         bookingDto.setStatus(BookingStatus.WAITING);
     }
 
@@ -95,6 +98,23 @@ public class BookingControllerTest {
         verify(bookingService, times(1)).approveBooking(userId, bookingId, approved);
     }
 
+    @SneakyThrows
+    @Test
+    void approveOverlappingBookingTest() {
+        int userId = 1;
+        int bookingId = bookingDto.getId();
+
+        when(bookingService.approveBooking(userId, bookingId, true))
+                .thenThrow(new ConflictException("Вещь уже забронирована на этот период"));
+
+        mvc.perform(patch("/bookings/{bookingId}", bookingId)
+                        .header("X-Sharer-User-Id", userId)
+                        .param("approved", "true")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Вещь уже забронирована на этот период"));
+    }
+
     @SneakyThrows
     @Test
     void getBookingByIdTest() {
@@ -122,7 +142,7 @@ public class BookingControllerTest {
         BookingState state = BookingState.FUTURE;
         int userId = 1;
 
-        when(bookingService.getAllBookingsByUser(userId, state)).thenReturn(bookings);
+        when(bookingService.getAllBookingsByUser(userId, state, 0, 10, null)).thenReturn(bookings);
 
         mvc.perform(get("/bookings")
                         .header("X-Sharer-User-Id", userId)
@@ -134,7 +154,7 @@ public class BookingControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().json(mapper.writeValueAsString(bookings)));
 
-        verify(bookingService, times(1)).getAllBookingsByUser(userId, state);
+        verify(bookingService, times(1)).getAllBookingsByUser(userId, state, 0, 10, null);
     }
 
     @SneakyThrows
@@ -144,7 +164,7 @@ public class BookingControllerTest {
         BookingState state = BookingState.FUTURE;
         int userId = 1;
 
-        when(bookingService.getAllBookingsByUserItems(userId, state)).thenReturn(bookings);
+        when(bookingService.getAllBookingsByUserItems(userId, state, 0, 10, null)).thenReturn(bookings);
 
         mvc.perform(get("/bookings/owner")
                         .header("X-Sharer-User-Id", userId)
@@ -156,6 +176,50 @@ public class BookingControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().json(mapper.writeValueAsString(bookings)));
 
-        verify(bookingService, times(1)).getAllBookingsByUserItems(userId, state);
+        verify(bookingService, times(1)).getAllBookingsByUserItems(userId, state, 0, 10, null);
+    }
+
+    @SneakyThrows
+    @Test
+    void getAllBookingsByUserWithCursorTest() {
+        Collection<BookingDto> bookings = List.of(bookingDto);
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2030, 1, 1, 10, 0), 5);
+        int userId = 1;
+
+        when(bookingService.getAllBookingsByUser(userId, BookingState.ALL, 0, 1, cursor)).thenReturn(bookings);
+
+        mvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", userId)
+                        .param("size", "1")
+                        .param("cursor", cursor.encode())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(KeysetCursor.NEXT_CURSOR_HEADER,
+                        new KeysetCursor(bookingDto.getStart(), bookingDto.getId()).encode()))
+                .andExpect(content().json(mapper.writeValueAsString(bookings)));
+
+        verify(bookingService, times(1)).getAllBookingsByUser(userId, BookingState.ALL, 0, 1, cursor);
+    }
+
+    @SneakyThrows
+    @Test
+    void getItemAvailabilityTest() {
+        int itemId = 1;
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime end = start.plusDays(1);
+        BookingAvailabilityDto availability = new BookingAvailabilityDto(itemId, start, end, false, end);
+
+        when(bookingService.getItemAvailability(itemId, start, end)).thenReturn(availability);
+
+        mvc.perform(get("/bookings/availability/{itemId}", itemId)
+                        .header("X-Sharer-User-Id", 1)
+                        .param("start", start.toString())
+                        .param("end", end.toString())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.available", is(false)))
+                .andExpect(content().json(mapper.writeValueAsString(availability)));
+
+        verify(bookingService, times(1)).getItemAvailability(itemId, start, end);
     }
 }
@@ -8,8 +8,8 @@ import org.springframework.boot.test.json.JacksonTester;
 import org.springframework.boot.test.json.JsonContent;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.BookingStatus;
-import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.item.dto.ItemShortDto;
+import ru.practicum.shareit.user.dto.UserShortDto;
 
 import java.time.LocalDateTime;
 
@@ -26,8 +26,8 @@ public class BookingDtoJsonTest {
         bookingDto.setId(1);
         bookingDto.setStart(LocalDateTime.now());
         bookingDto.setEnd(LocalDateTime.now().plusDays(1));
-        bookingDto.setItem(new Item());
-        bookingDto.setBooker(new User());
+        bookingDto.setItem(new ItemShortDto(1, "name"));
+        bookingDto.setBooker(new UserShortDto(1, "Julie"));
         bookingDto.setStatus(BookingStatus.APPROVED);
 
         JsonContent<BookingDto> result = json.write(bookingDto);
@@ -36,6 +36,10 @@ public class BookingDtoJsonTest {
         assertThat(result).extractingJsonPathStringValue("$.start").isNotEmpty();
         assertThat(result).extractingJsonPathStringValue("$.end").isNotEmpty();
         assertThat(result).extractingJsonPathStringValue("$.status").isEqualTo(String.valueOf(BookingStatus.APPROVED));
+        assertThat(result).extractingJsonPathNumberValue("$.item.id").isEqualTo(1);
+        assertThat(result).extractingJsonPathStringValue("$.item.name").isEqualTo("name");
+        assertThat(result).extractingJsonPathNumberValue("$.booker.id").isEqualTo(1);
+        assertThat(result).doesNotHaveJsonPath("$.item.owner");
     }
 }
 
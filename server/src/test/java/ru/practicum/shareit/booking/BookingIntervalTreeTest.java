@@ -0,0 +1,76 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.index.BookingIntervalTree;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BookingIntervalTreeTest {
+    private static final Duration HOUR = Duration.ofHours(1);
+
+    private final LocalDateTime base = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    private BookingIntervalTree tree;
+
+    @BeforeEach
+    void setUp() {
+        tree = new BookingIntervalTree();
+        tree.insert(1, base, base.plusDays(2));
+        tree.insert(2, base.plusDays(2), base.plusDays(3));
+        tree.insert(3, base.plusDays(5), base.plusDays(6));
+    }
+
+    @Test
+    void overlapsTest() {
+        assertTrue(tree.overlaps(base.plusDays(1), base.plusDays(4)));
+        assertTrue(tree.overlaps(base.minusDays(1), base.plusHours(1)));
+        assertFalse(tree.overlaps(base.plusDays(3), base.plusDays(5)));
+        assertFalse(tree.overlaps(base.minusDays(2), base));
+        assertFalse(tree.overlaps(base.plusDays(6), base.plusDays(7)));
+    }
+
+    @Test
+    void nextFreeSlotTest() {
+        assertEquals(base.plusDays(3), tree.nextFreeSlot(base.plusHours(5), HOUR));
+        assertEquals(base.plusDays(4), tree.nextFreeSlot(base.plusDays(4), HOUR));
+        assertEquals(base.plusDays(6), tree.nextFreeSlot(base.plusDays(5), HOUR));
+    }
+
+    @Test
+    void nextFreeSlotSkipsShortGapTest() {
+        BookingIntervalTree gapTree = new BookingIntervalTree();
+        gapTree.insert(1, base, base.plusDays(1));
+        gapTree.insert(2, base.plusDays(1).plusHours(2), base.plusDays(2));
+
+        assertEquals(base.plusDays(2), gapTree.nextFreeSlot(base, Duration.ofHours(3)));
+        assertEquals(base.plusDays(1), gapTree.nextFreeSlot(base, Duration.ofHours(2)));
+        assertEquals(base.plusDays(2), gapTree.nextFreeSlot(base.plusDays(1).plusHours(1), Duration.ofHours(2)));
+    }
+
+    @Test
+    void removeTest() {
+        assertTrue(tree.remove(2, base.plusDays(2)));
+        assertFalse(tree.remove(2, base.plusDays(2)));
+
+        assertEquals(2, tree.size());
+        assertFalse(tree.overlaps(base.plusDays(2), base.plusDays(3)));
+        assertEquals(base.plusDays(2), tree.nextFreeSlot(base, HOUR));
+    }
+
+    @Test
+    void manySequentialIntervalsTest() {
+        BookingIntervalTree bigTree = new BookingIntervalTree();
+        for (int i = 0; i < 10_000; i++) {
+            bigTree.insert(i, base.plusHours(2L * i), base.plusHours(2L * i + 1));
+        }
+
+        assertEquals(10_000, bigTree.size());
+        assertTrue(bigTree.overlaps(base.plusHours(9_000), base.plusHours(9_000).plusMinutes(30)));
+        assertFalse(bigTree.overlaps(base.plusHours(9_001), base.plusHours(9_002)));
+        assertEquals(base.plusHours(9_001), bigTree.nextFreeSlot(base.plusHours(9_000), HOUR));
+    }
+}
@@ -3,11 +3,16 @@ package ru.practicum.shareit.booking;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.TypedQuery;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingAvailabilityDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.booking.model.Booking;
@@ -17,13 +22,25 @@ import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exception.*;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemSaveDto;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.Collection;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
@@ -39,6 +56,7 @@ public class BookingServiceImplTest {
     private final BookingService service;
     private final UserService userService;
     private final ItemService itemService;
+    private final TransactionTemplate transactionTemplate;
 
     private BookingInputDto bookingInputDto;
     private UserDto userDto;
@@ -106,6 +124,92 @@ public class BookingServiceImplTest {
         assertThrows(ConditionException.class, () -> service.createBooking(userId, bookingInputDto));
     }
 
+    @Test
+    void createOverlappingBookingTest() {
+        UserDto user = userService.createUser(userDto);
+        int userId = user.getId();
+        ItemDto item = itemService.createItem(userId, itemSaveDto);
+        int itemId = item.getId();
+        bookingInputDto.setItemId(itemId);
+        service.createBooking(userId, bookingInputDto);
+
+        BookingInputDto overlapping = new BookingInputDto();
+        overlapping.setItemId(itemId);
+        overlapping.setStart(bookingInputDto.getStart().plusHours(1));
+        overlapping.setEnd(bookingInputDto.getEnd().plusDays(1));
+
+        assertThrows(ConditionException.class, () -> service.createBooking(userId, overlapping));
+    }
+
+    @Test
+    void createBookingAfterRejectedTest() {
+        UserDto user = userService.createUser(userDto);
+        int userId = user.getId();
+        ItemDto item = itemService.createItem(userId, itemSaveDto);
+        int itemId = item.getId();
+        bookingInputDto.setItemId(itemId);
+        BookingDto rejected = service.createBooking(userId, bookingInputDto);
+        service.approveBooking(userId, rejected.getId(), false);
+
+        BookingDto booking = service.createBooking(userId, bookingInputDto);
+
+        assertThat(booking.getId(), not(equalTo(rejected.getId())));
+        assertThat(booking.getStatus(), equalTo(BookingStatus.WAITING));
+    }
+
+    @Test
+    void createBookingAfterBookerDeletedTest() {
+        UserDto owner = userService.createUser(userDto);
+        ItemDto item = itemService.createItem(owner.getId(), itemSaveDto);
+        bookingInputDto.setItemId(item.getId());
+        UserDto deletedBooker = userService.createUser(new UserDto(0, "booker", "booker@yandex.ru"));
+        service.createBooking(deletedBooker.getId(), bookingInputDto);
+        UserDto booker = userService.createUser(new UserDto(0, "other", "other@yandex.ru"));
+
+        userService.deleteUser(deletedBooker.getId());
+        BookingDto booking = service.createBooking(booker.getId(), bookingInputDto);
+
+        assertThat(booking.getStatus(), equalTo(BookingStatus.WAITING));
+        assertThat(service.getItemAvailability(item.getId(), bookingInputDto.getEnd(),
+                bookingInputDto.getEnd().plusDays(1)).isAvailable(), equalTo(true));
+    }
+
+    @Test
+    void createBookingWithWrongDatesTest() {
+        UserDto user = userService.createUser(userDto);
+        int userId = user.getId();
+        ItemDto item = itemService.createItem(userId, itemSaveDto);
+        bookingInputDto.setItemId(item.getId());
+        bookingInputDto.setEnd(bookingInputDto.getStart());
+
+        assertThrows(ConditionException.class, () -> service.createBooking(userId, bookingInputDto));
+    }
+
+    @Test
+    void getItemAvailabilityTest() {
+        UserDto user = userService.createUser(userDto);
+        int userId = user.getId();
+        ItemDto item = itemService.createItem(userId, itemSaveDto);
+        int itemId = item.getId();
+        bookingInputDto.setItemId(itemId);
+        service.createBooking(userId, bookingInputDto);
+
+        BookingAvailabilityDto busy = service.getItemAvailability(itemId, bookingInputDto.getStart(),
+                bookingInputDto.getEnd());
+        BookingAvailabilityDto free = service.getItemAvailability(itemId, bookingInputDto.getEnd(),
+                bookingInputDto.getEnd().plusDays(1));
+
+        assertThat(busy.isAvailable(), equalTo(false));
+        assertThat(busy.getNextFreeSlot(), equalTo(bookingInputDto.getEnd().truncatedTo(ChronoUnit.MICROS)));
+        assertThat(free.isAvailable(), equalTo(true));
+    }
+
+    @Test
+    void getNotExistingItemAvailabilityTest() {
+        assertThrows(ItemNotFoundException.class, () -> service.getItemAvailability(0,
+                bookingInputDto.getStart(), bookingInputDto.getEnd()));
+    }
+
     @Test
     void approveBookingTest() {
         UserDto user = userService.createUser(userDto);
@@ -122,6 +226,108 @@ public class BookingServiceImplTest {
         assertThat(booking.getStatus(), equalTo(BookingStatus.APPROVED));
     }
 
+    @Test
+    void approveAlreadyDecidedBookingTest() {
+        UserDto user = userService.createUser(userDto);
+        int userId = user.getId();
+        ItemDto item = itemService.createItem(userId, itemSaveDto);
+        bookingInputDto.setItemId(item.getId());
+        int bookingId = service.createBooking(userId, bookingInputDto).getId();
+        service.approveBooking(userId, bookingId, true);
+
+        assertThrows(ConflictException.class, () -> service.approveBooking(userId, bookingId, true));
+        assertThrows(ConflictException.class, () -> service.approveBooking(userId, bookingId, false));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void approveOverlappingBookingsConcurrentlyTest() throws InterruptedException {
+        UserDto user = userService.createUser(userDto);
+        int userId = user.getId();
+        UserDto booker = userService.createUser(new UserDto(0, "booker", "booker@yandex.ru"));
+        ItemDto item = itemService.createItem(userId, itemSaveDto);
+        bookingInputDto.setItemId(item.getId());
+        int first = service.createBooking(booker.getId(), bookingInputDto).getId();
+        int second = transactionTemplate.execute(status -> {
+            Booking booking = Booking.builder()
+                    .start(bookingInputDto.getStart().plusHours(1))
+                    .end(bookingInputDto.getEnd().plusHours(1))
+                    .item(em.find(Item.class, item.getId()))
+                    .booker(em.find(User.class, booker.getId()))
+                    .status(BookingStatus.WAITING)
+                    .build();
+            em.persist(booking);
+            return booking.getId();
+        });
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        AtomicInteger approvals = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        List<Throwable> failures = new CopyOnWriteArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                int bookingId = i % 2 == 0 ? first : second;
+                executor.execute(() -> {
+                    try {
+                        startSignal.await();
+                        service.approveBooking(userId, bookingId, true);
+                        approvals.incrementAndGet();
+                    } catch (ConflictException e) {
+                        conflicts.incrementAndGet();
+                    } catch (Throwable e) {
+                        failures.add(e);
+                    }
+                });
+            }
+            startSignal.countDown();
+            executor.shutdown();
+
+            assertThat(executor.awaitTermination(30, TimeUnit.SECONDS), is(true));
+            assertThat(failures, empty());
+            assertThat(approvals.get(), equalTo(1));
+            assertThat(conflicts.get(), equalTo(threads - 1));
+            assertThat(List.of(service.getBookingById(userId, first).getStatus(),
+                            service.getBookingById(userId, second).getStatus()),
+                    containsInAnyOrder(BookingStatus.APPROVED, BookingStatus.WAITING));
+        } finally {
+            executor.shutdownNow();
+            userService.deleteUser(userId);
+            userService.deleteUser(booker.getId());
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void createBookingKeepsItemSecondLevelCacheTest() {
+        UserDto user = userService.createUser(userDto);
+        UserDto booker = userService.createUser(new UserDto(0, "booker", "booker@yandex.ru"));
+        ItemDto item = itemService.createItem(user.getId(), itemSaveDto);
+        ItemDto otherItem = itemService.createItem(user.getId(), itemSaveDto);
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        try {
+            int version = findItem(item.getId()).getVersion();
+            findItem(otherItem.getId());
+            long itemCacheHits = statistics.getDomainDataRegionStatistics("items").getHitCount();
+            bookingInputDto.setItemId(item.getId());
+
+            service.createBooking(booker.getId(), bookingInputDto);
+
+            findItem(otherItem.getId());
+
+            assertThat(statistics.getDomainDataRegionStatistics("items").getHitCount(),
+                    equalTo(itemCacheHits + 1));
+            assertThat(findItem(item.getId()).getVersion(), equalTo(version + 1));
+        } finally {
+            userService.deleteUser(user.getId());
+            userService.deleteUser(booker.getId());
+        }
+    }
+
+    private Item findItem(int itemId) {
+        return transactionTemplate.execute(status -> em.find(Item.class, itemId));
+    }
+
     @Test
     void approveBookingByNotExistingUserTest() {
         int userId = userDto.getId();
@@ -157,6 +363,36 @@ public class BookingServiceImplTest {
     }
 
 
+    @Test
+    void createBookingChangesItemETagTest() {
+        UserDto user = userService.createUser(userDto);
+        int userId = user.getId();
+        ItemDto item = itemService.createItem(userId, itemSaveDto);
+        int itemId = item.getId();
+        String eTag = itemService.getItemETag(itemService.getItemById(itemId));
+        bookingInputDto.setItemId(itemId);
+
+        service.createBooking(userId, bookingInputDto);
+
+        assertThat(itemService.isItemETagCurrent(itemId, eTag), equalTo(false));
+    }
+
+    @Test
+    void getBookingETagTest() {
+        UserDto user = userService.createUser(userDto);
+        int userId = user.getId();
+        ItemDto item = itemService.createItem(userId, itemSaveDto);
+        bookingInputDto.setItemId(item.getId());
+        BookingDto booking = service.createBooking(userId, bookingInputDto);
+
+        Optional<String> eTag = service.getBookingETag(userId, booking.getId());
+        service.approveBooking(userId, booking.getId(), true);
+
+        assertThat(eTag.isPresent(), equalTo(true));
+        assertThat(service.getBookingETag(userId, booking.getId()), not(equalTo(eTag)));
+        assertThat(service.getBookingETag(0, booking.getId()).isPresent(), equalTo(false));
+    }
+
     @Test
     void getBookingByIdTest() {
         UserDto user = userService.createUser(userDto);
@@ -169,7 +405,7 @@ public class BookingServiceImplTest {
         BookingDto bookingDto = service.getBookingById(userId, booking.getId());
 
         assertThat(bookingDto.getId(), equalTo(booking.getId()));
-        assertThat(bookingDto.getItem().getId(), equalTo(bookingInputDto.getItemId()));
+        assertThat(bookingDto.getItem().id(), equalTo(bookingInputDto.getItemId()));
     }
 
     @Test
@@ -217,7 +453,7 @@ public class BookingServiceImplTest {
         BookingDto booking = service.createBooking(userId, bookingInputDto);
         List<BookingDto> sourceBookings = List.of(booking);
 
-        Collection<BookingDto> targetBookings = service.getAllBookingsByUser(userId, BookingState.ALL);
+        Collection<BookingDto> targetBookings = service.getAllBookingsByUser(userId, BookingState.ALL, 0, 10, null);
 
         assertThat(targetBookings, hasSize(sourceBookings.size()));
     }
@@ -232,7 +468,7 @@ public class BookingServiceImplTest {
         BookingDto booking = service.createBooking(userId, bookingInputDto);
         List<BookingDto> sourceBookings = List.of(booking);
 
-        Collection<BookingDto> targetBookings = service.getAllBookingsByUser(userId, BookingState.CURRENT);
+        Collection<BookingDto> targetBookings = service.getAllBookingsByUser(userId, BookingState.CURRENT, 0, 10, null);
 
         assertThat(targetBookings, hasSize(sourceBookings.size()));
     }
@@ -249,7 +485,7 @@ public class BookingServiceImplTest {
         BookingDto booking = service.createBooking(userId, bookingInputDto);
         List<BookingDto> sourceBookings = List.of(booking);
 
-        Collection<BookingDto> targetBookings = service.getAllBookingsByUser(userId, BookingState.FUTURE);
+        Collection<BookingDto> targetBookings = service.getAllBookingsByUser(userId, BookingState.FUTURE, 0, 10, null);
 
         assertThat(targetBookings, hasSize(sourceBookings.size()));
     }
@@ -266,7 +502,7 @@ public class BookingServiceImplTest {
         BookingDto booking = service.createBooking(userId, bookingInputDto);
         List<BookingDto> sourceBookings = List.of(booking);
 
-        Collection<BookingDto> targetBookings = service.getAllBookingsByUser(userId, BookingState.PAST);
+        Collection<BookingDto> targetBookings = service.getAllBookingsByUser(userId, BookingState.PAST, 0, 10, null);
 
         assertThat(targetBookings, hasSize(sourceBookings.size()));
     }
@@ -281,7 +517,7 @@ public class BookingServiceImplTest {
         BookingDto booking = service.createBooking(userId, bookingInputDto);
         List<BookingDto> sourceBookings = List.of(booking);
 
-        Collection<BookingDto> targetBookings = service.getAllBookingsByUser(userId, BookingState.WAITING);
+        Collection<BookingDto> targetBookings = service.getAllBookingsByUser(userId, BookingState.WAITING, 0, 10, null);
 
         assertThat(targetBookings, hasSize(sourceBookings.size()));
     }
@@ -298,7 +534,7 @@ public class BookingServiceImplTest {
         BookingDto approvedBooking = service.approveBooking(userId, bookingId, false);
         List<BookingDto> sourceBookings = List.of(approvedBooking);
 
-        Collection<BookingDto> targetBookings = service.getAllBookingsByUser(userId, BookingState.REJECTED);
+        Collection<BookingDto> targetBookings = service.getAllBookingsByUser(userId, BookingState.REJECTED, 0, 10, null);
 
         assertThat(targetBookings, hasSize(sourceBookings.size()));
     }
@@ -309,14 +545,14 @@ public class BookingServiceImplTest {
         int userId = user.getId();
         BookingState state = BookingState.TEST;
 
-        assertThrows(ConditionException.class, () -> service.getAllBookingsByUser(userId, state));
+        assertThrows(ConditionException.class, () -> service.getAllBookingsByUser(userId, state, 0, 10, null));
     }
 
     @Test
     void getAllBookingsByNotExistingUserTest() {
         int userId = userDto.getId();
 
-        assertThrows(UserNotFoundException.class, () -> service.getAllBookingsByUser(userId, BookingState.ALL));
+        assertThrows(UserNotFoundException.class, () -> service.getAllBookingsByUser(userId, BookingState.ALL, 0, 10, null));
     }
 
     @Test
@@ -329,7 +565,7 @@ public class BookingServiceImplTest {
         BookingDto booking = service.createBooking(userId, bookingInputDto);
         List<BookingDto> sourceBookings = List.of(booking);
 
-        Collection<BookingDto> targetBookings = service.getAllBookingsByUserItems(userId, BookingState.ALL);
+        Collection<BookingDto> targetBookings = service.getAllBookingsByUserItems(userId, BookingState.ALL, 0, 10, null);
 
         assertThat(targetBookings, hasSize(sourceBookings.size()));
     }
@@ -346,7 +582,7 @@ public class BookingServiceImplTest {
         BookingDto booking = service.createBooking(userId, bookingInputDto);
         List<BookingDto> sourceBookings = List.of(booking);
 
-        Collection<BookingDto> targetBookings = service.getAllBookingsByUserItems(userId, BookingState.FUTURE);
+        Collection<BookingDto> targetBookings = service.getAllBookingsByUserItems(userId, BookingState.FUTURE, 0, 10, null);
 
         assertThat(targetBookings, hasSize(sourceBookings.size()));
     }
@@ -363,7 +599,7 @@ public class BookingServiceImplTest {
         BookingDto booking = service.createBooking(userId, bookingInputDto);
         List<BookingDto> sourceBookings = List.of(booking);
 
-        Collection<BookingDto> targetBookings = service.getAllBookingsByUserItems(userId, BookingState.PAST);
+        Collection<BookingDto> targetBookings = service.getAllBookingsByUserItems(userId, BookingState.PAST, 0, 10, null);
 
         assertThat(targetBookings, hasSize(sourceBookings.size()));
     }
@@ -378,7 +614,7 @@ public class BookingServiceImplTest {
         BookingDto booking = service.createBooking(userId, bookingInputDto);
         List<BookingDto> sourceBookings = List.of(booking);
 
-        Collection<BookingDto> targetBookings = service.getAllBookingsByUserItems(userId, BookingState.WAITING);
+        Collection<BookingDto> targetBookings = service.getAllBookingsByUserItems(userId, BookingState.WAITING, 0, 10, null);
 
         assertThat(targetBookings, hasSize(sourceBookings.size()));
     }
@@ -395,7 +631,7 @@ public class BookingServiceImplTest {
         BookingDto approvedBooking = service.approveBooking(userId, bookingId, false);
         List<BookingDto> sourceBookings = List.of(approvedBooking);
 
-        Collection<BookingDto> targetBookings = service.getAllBookingsByUserItems(userId, BookingState.REJECTED);
+        Collection<BookingDto> targetBookings = service.getAllBookingsByUserItems(userId, BookingState.REJECTED, 0, 10, null);
 
         assertThat(targetBookings, hasSize(sourceBookings.size()));
     }
@@ -407,14 +643,14 @@ public class BookingServiceImplTest {
         ItemDto item = itemService.createItem(userId, itemSaveDto);
         BookingState state = BookingState.TEST;
 
-        assertThrows(ConditionException.class, () -> service.getAllBookingsByUserItems(userId, state));
+        assertThrows(ConditionException.class, () -> service.getAllBookingsByUserItems(userId, state, 0, 10, null));
     }
 
     @Test
     void getAllBookingsByNotExistingUserItemsTest() {
         int userId = userDto.getId();
 
-        assertThrows(UserNotFoundException.class, () -> service.getAllBookingsByUserItems(userId, BookingState.ALL));
+        assertThrows(UserNotFoundException.class, () -> service.getAllBookingsByUserItems(userId, BookingState.ALL, 0, 10, null));
     }
 
     @Test
@@ -422,6 +658,68 @@ public class BookingServiceImplTest {
         UserDto user = userService.createUser(userDto);
         int userId = user.getId();
 
-        assertThrows(ItemNotFoundException.class, () -> service.getAllBookingsByUserItems(userId, BookingState.ALL));
+        assertThrows(ItemNotFoundException.class, () -> service.getAllBookingsByUserItems(userId, BookingState.ALL, 0, 10, null));
+    }
+
+    @Test
+    void getAllBookingsByUserKeysetPagesTest() {
+        UserDto user = userService.createUser(userDto);
+        int userId = user.getId();
+        ItemDto item = itemService.createItem(userId, itemSaveDto);
+        int itemId = item.getId();
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        List<Integer> created = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            BookingInputDto input = new BookingInputDto();
+            input.setItemId(itemId);
+            input.setStart(now.plusDays(2L * i + 1));
+            input.setEnd(now.plusDays(2L * i + 2));
+            created.add(0, service.createBooking(userId, input).getId());
+        }
+
+        List<BookingDto> firstPage = List.copyOf(service.getAllBookingsByUser(userId, BookingState.ALL, 0, 2, null));
+        KeysetCursor cursor = new KeysetCursor(firstPage.get(1).getStart(), firstPage.get(1).getId());
+        List<BookingDto> secondPage = List.copyOf(service.getAllBookingsByUser(userId, BookingState.ALL, 0, 2,
+                KeysetCursor.decode(cursor.encode())));
+        List<BookingDto> ownerPage = List.copyOf(service.getAllBookingsByUserItems(userId, BookingState.FUTURE, 0, 2,
+                cursor));
+        List<BookingDto> offsetPage = List.copyOf(service.getAllBookingsByUser(userId, BookingState.ALL, 4, 2, null));
+
+        assertThat(firstPage.stream().map(BookingDto::getId).toList(), equalTo(created.subList(0, 2)));
+        assertThat(secondPage.stream().map(BookingDto::getId).toList(), equalTo(created.subList(2, 4)));
+        assertThat(ownerPage.stream().map(BookingDto::getId).toList(), equalTo(created.subList(2, 4)));
+        assertThat(offsetPage.stream().map(BookingDto::getId).toList(), equalTo(created.subList(4, 5)));
+    }
+
+    @Test
+    void getAllBookingsByUserUnalignedOffsetTest() {
+        UserDto user = userService.createUser(userDto);
+        int userId = user.getId();
+        ItemDto item = itemService.createItem(userId, itemSaveDto);
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        List<Integer> created = new ArrayList<>();
+        for (int i = 0; i < 15; i++) {
+            BookingInputDto input = new BookingInputDto();
+            input.setItemId(item.getId());
+            input.setStart(now.plusDays(2L * i + 1));
+            input.setEnd(now.plusDays(2L * i + 2));
+            created.add(0, service.createBooking(userId, input).getId());
+        }
+
+        List<BookingDto> page = List.copyOf(service.getAllBookingsByUser(userId, BookingState.ALL, 5, 10, null));
+
+        assertThat(page.stream().map(BookingDto::getId).toList(), equalTo(created.subList(5, 15)));
+    }
+
+    @Test
+    void getAllBookingsByUserWrongPageTest() {
+        UserDto user = userService.createUser(userDto);
+        int userId = user.getId();
+
+        assertThrows(ConditionException.class,
+                () -> service.getAllBookingsByUser(userId, BookingState.ALL, -1, 10, null));
+        assertThrows(ConditionException.class,
+                () -> service.getAllBookingsByUser(userId, BookingState.ALL, 0, 0, null));
+        assertThrows(ConditionException.class, () -> KeysetCursor.decode("wrong"));
     }
 }
@@ -7,11 +7,14 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemSaveDto;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
 
 import java.nio.charset.StandardCharsets;
@@ -24,6 +27,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -96,6 +100,20 @@ public class ItemControllerTest {
         verify(itemService, times(1)).updateItem(anyInt(), anyInt(), any(ItemDto.class));
     }
 
+    @SneakyThrows
+    @Test
+    void updateItemOptimisticLockingFailureTest() {
+        when(itemService.updateItem(anyInt(), anyInt(), any(ItemDto.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Item.class, itemDto.getId()));
+
+        mvc.perform(patch("/items/{itemId}", itemDto.getId())
+                        .header("X-Sharer-User-Id", "1")
+                        .content(mapper.writeValueAsString(itemDto))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict());
+    }
+
     @SneakyThrows
     @Test
     void getItemByIdTest() {
@@ -117,6 +135,23 @@ public class ItemControllerTest {
         verify(itemService, times(1)).getItemById(anyInt());
     }
 
+    @SneakyThrows
+    @Test
+    void getItemByIdNotModifiedTest() {
+        int itemId = itemDto.getId();
+
+        when(itemService.isItemETagCurrent(itemId, "3")).thenReturn(true);
+
+        mvc.perform(get("/items/{id}", itemId)
+                        .header("X-Sharer-User-Id", 1)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"1\", \"3\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+
+        verify(itemService, never()).getItemById(anyInt());
+    }
+
     @SneakyThrows
     @Test
     void getAllItemsTest() {
@@ -145,7 +180,7 @@ public class ItemControllerTest {
         String searchText = itemDto.getName();
         Collection<ItemDto> items = List.of(itemDto);
 
-        when(itemService.searchItems(searchText)).thenReturn(items);
+        when(itemService.searchItems(searchText, 0, 10)).thenReturn(items);
 
         mvc.perform(get("/items/search")
                         .param("text", searchText)
@@ -156,7 +191,7 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$[0].name", is(itemDto.getName())))
                 .andExpect(jsonPath("$[0].description", is(itemDto.getDescription())));
 
-        verify(itemService, times(1)).searchItems(searchText);
+        verify(itemService, times(1)).searchItems(searchText, 0, 10);
     }
 
     @SneakyThrows
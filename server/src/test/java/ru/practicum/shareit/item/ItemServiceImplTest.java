@@ -3,11 +3,17 @@ package ru.practicum.shareit.item;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.TypedQuery;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.exception.ConditionException;
@@ -20,6 +26,8 @@ import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.item.dto.ItemSaveDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.user.User;
@@ -29,10 +37,16 @@ import ru.practicum.shareit.user.service.UserService;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 @Transactional
 @SpringBootTest(
@@ -43,6 +57,11 @@ public class ItemServiceImplTest {
     private final EntityManager em;
     private final ItemService service;
     private final UserService userService;
+    private final TransactionTemplate transactionTemplate;
+    private final ItemSearchIndex searchIndex;
+
+    @SpyBean
+    private ItemRepository itemRepository;
 
     private ItemSaveDto itemSaveDto;
     private ItemDto itemDto;
@@ -197,6 +216,54 @@ public class ItemServiceImplTest {
         assertThat(item.getAvailable(), equalTo(itemSaveDto.getAvailable()));
     }
 
+    @Test
+    void itemETagTest() {
+        UserDto user = userService.createUser(userDto);
+        int userId = user.getId();
+        ItemDto savedItem = service.createItem(userId, itemSaveDto);
+        int itemId = savedItem.getId();
+        String eTag = service.getItemETag(service.getItemById(itemId));
+
+        assertThat(service.isItemETagCurrent(itemId, eTag), equalTo(true));
+
+        service.updateItem(userId, itemId, itemDto);
+
+        assertThat(service.isItemETagCurrent(itemId, eTag), equalTo(false));
+        assertThat(service.isItemETagCurrent(itemId, service.getItemETag(service.getItemById(itemId))),
+                equalTo(true));
+        assertThat(service.isItemETagCurrent(itemId, "bad"), equalTo(false));
+    }
+
+    @Test
+    void itemETagExpiresWhenNextBookingStartsTest() {
+        UserDto user = userService.createUser(userDto);
+        int userId = user.getId();
+        ItemDto savedItem = service.createItem(userId, itemSaveDto);
+        int itemId = savedItem.getId();
+        em.persist(new Booking(0, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2),
+                em.find(Item.class, itemId), em.find(User.class, userId), BookingStatus.WAITING, null));
+        ItemDto item = service.getItemById(itemId);
+
+        assertThat(service.isItemETagCurrent(itemId, service.getItemETag(item)), equalTo(true));
+
+        item.setNextBooking(LocalDateTime.now().minusSeconds(1));
+
+        assertThat(service.isItemETagCurrent(itemId, service.getItemETag(item)), equalTo(false));
+    }
+
+    @Test
+    void itemETagAfterOwnerRenameTest() {
+        UserDto user = userService.createUser(userDto);
+        int userId = user.getId();
+        ItemDto savedItem = service.createItem(userId, itemSaveDto);
+        int itemId = savedItem.getId();
+        String eTag = service.getItemETag(service.getItemById(itemId));
+
+        userService.updateUser(userId, new UserDto(userId, "Julia", null));
+
+        assertThat(service.isItemETagCurrent(itemId, eTag), equalTo(false));
+    }
+
     @Test
     void getItemByNotExistingIdTest() {
         UserDto user = userService.createUser(userDto);
@@ -224,6 +291,36 @@ public class ItemServiceImplTest {
         }
     }
 
+    @Test
+    void getAllItemsWithBookingsAndCommentsTest() {
+        UserDto user = userService.createUser(userDto);
+        int userId = user.getId();
+        ItemDto item = service.createItem(userId, itemSaveDto);
+        ItemDto otherItem = service.createItem(userId, itemSaveDto);
+        Item itemEntity = em.find(Item.class, item.getId());
+        User booker = em.find(User.class, userId);
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        em.persist(Booking.builder().start(now.minusDays(10)).end(now.minusDays(9))
+                .item(itemEntity).booker(booker).status(BookingStatus.APPROVED).build());
+        for (int i = 1; i <= 2; i++) {
+            em.persist(Booking.builder().start(now.plusDays(10L * i)).end(now.plusDays(10L * i + 1))
+                    .item(itemEntity).booker(booker).status(BookingStatus.APPROVED).build());
+        }
+        service.addComment(userId, item.getId(), commentDto);
+
+        List<ItemDto> targetItems = List.copyOf(service.getAllItems(userId));
+
+        assertThat(targetItems, hasSize(2));
+        assertThat(targetItems.get(0).getId(), equalTo(item.getId()));
+        assertThat(targetItems.get(0).getLastBooking(), equalTo(now.minusDays(10)));
+        assertThat(targetItems.get(0).getNextBooking(), equalTo(now.plusDays(10)));
+        assertThat(targetItems.get(0).getComments(), hasSize(1));
+        assertThat(targetItems.get(1).getId(), equalTo(otherItem.getId()));
+        assertThat(targetItems.get(1).getLastBooking(), nullValue());
+        assertThat(targetItems.get(1).getNextBooking(), nullValue());
+        assertThat(targetItems.get(1).getComments(), empty());
+    }
+
     @Test
     void getAllItemsByUserNotExistingTest() {
         int userId = userDto.getId();
@@ -238,7 +335,7 @@ public class ItemServiceImplTest {
         service.createItem(userId, itemSaveDto);
         Collection<ItemSaveDto> sourceItems = List.of(itemSaveDto);
 
-        Collection<ItemDto> targetItems = service.searchItems(itemSaveDto.getDescription());
+        Collection<ItemDto> targetItems = service.searchItems(itemSaveDto.getDescription(), 0, 10);
 
         assertThat(targetItems, hasSize(sourceItems.size()));
         for (ItemSaveDto sourceItem : sourceItems) {
@@ -250,14 +347,83 @@ public class ItemServiceImplTest {
         }
     }
 
+    @Test
+    void searchItemsRankingTest() {
+        UserDto user = userService.createUser(userDto);
+        int userId = user.getId();
+        itemSaveDto.setName("Дрель аккумуляторная");
+        itemSaveDto.setDescription("Мощная");
+        ItemDto drill = service.createItem(userId, itemSaveDto);
+        itemSaveDto.setName("Шуруповерт");
+        itemSaveDto.setDescription("Работает как дрель");
+        ItemDto screwdriver = service.createItem(userId, itemSaveDto);
+        itemSaveDto.setName("Дрель ударная");
+        itemSaveDto.setAvailable(false);
+        service.createItem(userId, itemSaveDto);
+
+        List<ItemDto> targetItems = List.copyOf(service.searchItems("дрел", 0, 10));
+        List<ItemDto> secondPage = List.copyOf(service.searchItems("дрел", 1, 1));
+
+        assertThat(targetItems.stream().map(ItemDto::getId).toList(),
+                equalTo(List.of(drill.getId(), screwdriver.getId())));
+        assertThat(secondPage.stream().map(ItemDto::getId).toList(), equalTo(List.of(screwdriver.getId())));
+    }
+
+    @Test
+    void searchItemsAfterUpdateTest() {
+        UserDto user = userService.createUser(userDto);
+        int userId = user.getId();
+        ItemDto item = service.createItem(userId, itemSaveDto);
+        itemDto.setName("Отвертка");
+        itemDto.setAvailable(false);
+        service.updateItem(userId, item.getId(), itemDto);
+
+        assertThat(service.searchItems("Отвертка", 0, 10), empty());
+
+        itemDto.setAvailable(true);
+        service.updateItem(userId, item.getId(), itemDto);
+
+        assertThat(service.searchItems("отВЕРТКА", 0, 10), hasSize(1));
+        assertThrows(ConditionException.class, () -> service.searchItems("отвертка", -1, 10));
+    }
+
+    @Test
+    void searchItemsSkipsItemsMissingFromDatabaseTest() {
+        UserDto user = userService.createUser(userDto);
+        itemSaveDto.setName("Стремянка");
+        ItemDto ladder = service.createItem(user.getId(), itemSaveDto);
+        ItemDto removedLadder = service.createItem(user.getId(), itemSaveDto);
+        em.remove(em.find(Item.class, removedLadder.getId()));
+        em.flush();
+
+        Collection<ItemDto> firstPage = service.searchItems("стремянка", 0, 1);
+
+        assertThat(firstPage, contains(hasProperty("id", equalTo(ladder.getId()))));
+        assertThat(searchIndex.search("стремянка", 0, 10), equalTo(List.of(ladder.getId())));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void searchItemsAfterOwnerDeletedTest() {
+        UserDto user = userService.createUser(userDto);
+        itemSaveDto.setName("Стремянка");
+        service.createItem(user.getId(), itemSaveDto);
+        service.createItem(user.getId(), itemSaveDto);
+
+        userService.deleteUser(user.getId());
+
+        assertThat(searchIndex.search("стремянка", 0, 10), empty());
+        assertThat(service.searchItems("стремянка", 0, 10), empty());
+    }
+
     @Test
     void searchItemsWithEmptyTextTest() {
         Collection<ItemSaveDto> sourceItems = List.of();
         String text = "";
         String text2 = "   ";
 
-        Collection<ItemDto> targetItems1 = service.searchItems(text);
-        Collection<ItemDto> targetItems2 = service.searchItems(text2);
+        Collection<ItemDto> targetItems1 = service.searchItems(text, 0, 10);
+        Collection<ItemDto> targetItems2 = service.searchItems(text2, 0, 10);
 
         assertThat(targetItems1, hasSize(sourceItems.size()));
         assertThat(targetItems2, hasSize(sourceItems.size()));
@@ -290,6 +456,27 @@ public class ItemServiceImplTest {
         assertThat(comment.getText(), equalTo(commentDto.getText()));
     }
 
+    @Test
+    void addCommentAfterSeveralBookingsTest() {
+        UserDto user = userService.createUser(userDto);
+        int userId = user.getId();
+        ItemDto item = service.createItem(userId, itemSaveDto);
+        int itemId = item.getId();
+        for (int days = 2; days <= 4; days += 2) {
+            em.persist(Booking.builder()
+                    .start(LocalDateTime.now().minusDays(days))
+                    .end(LocalDateTime.now().minusDays(days - 1))
+                    .item(em.find(Item.class, itemId))
+                    .booker(em.find(User.class, userId))
+                    .status(BookingStatus.APPROVED)
+                    .build());
+        }
+
+        CommentDto comment = service.addComment(userId, itemId, commentDto);
+
+        assertThat(comment.getText(), equalTo(commentDto.getText()));
+    }
+
     @Test
     void addCommentWithoutBookingTest() {
         UserDto user = userService.createUser(userDto);
@@ -334,4 +521,97 @@ public class ItemServiceImplTest {
 
         assertThat(targetItems, hasSize(sourceItems.size()));
     }
+
+    @Test
+    void getItemsByRequestIdsTest() {
+        UserDto user = userService.createUser(userDto);
+        int userId = user.getId();
+        ItemRequest request = ItemRequest.builder()
+                .description("description")
+                .requester(em.find(User.class, userId))
+                .build();
+        em.persist(request);
+        itemSaveDto.setRequestId(request.getId());
+        ItemDto item = service.createItem(userId, itemSaveDto);
+
+        Map<Integer, List<ItemResponseDto>> targetItems = service.getItemsByRequestIds(List.of(request.getId(), 0));
+
+        assertThat(targetItems.keySet(), contains(request.getId()));
+        assertThat(targetItems.get(request.getId()), contains(allOf(
+                hasProperty("itemId", equalTo(item.getId())),
+                hasProperty("name", equalTo(item.getName())),
+                hasProperty("ownerId", equalTo(userId)))));
+        assertThat(service.getItemsByRequestIds(List.of()).isEmpty(), equalTo(true));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void getItemsByRequestIdFromSecondLevelCacheTest() {
+        UserDto user = userService.createUser(userDto);
+        Integer requestId = transactionTemplate.execute(status -> {
+            ItemRequest request = ItemRequest.builder()
+                    .description("request")
+                    .requester(em.find(User.class, user.getId()))
+                    .build();
+            em.persist(request);
+            return request.getId();
+        });
+        itemSaveDto.setRequestId(requestId);
+        ItemDto item = service.createItem(user.getId(), itemSaveDto);
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        try {
+            service.getItemsByRequestId(requestId);
+            long queryCacheHits = statistics.getQueryCacheHitCount();
+            long itemCacheHits = statistics.getDomainDataRegionStatistics("items").getHitCount();
+
+            Collection<ItemResponseDto> items = service.getItemsByRequestId(requestId);
+            transactionTemplate.executeWithoutResult(status -> em.find(Item.class, item.getId()));
+            service.updateItem(user.getId(), item.getId(), itemDto);
+            Collection<ItemResponseDto> updatedItems = service.getItemsByRequestId(requestId);
+
+            assertThat(items, hasSize(1));
+            assertThat(statistics.getQueryCacheHitCount(), greaterThan(queryCacheHits));
+            assertThat(statistics.getDomainDataRegionStatistics("items").getHitCount(), greaterThan(itemCacheHits));
+            assertThat(updatedItems, contains(hasProperty("name", equalTo(itemDto.getName()))));
+        } finally {
+            transactionTemplate.executeWithoutResult(status -> {
+                em.remove(em.find(Item.class, item.getId()));
+                em.remove(em.find(ItemRequest.class, requestId));
+            });
+            userService.deleteUser(user.getId());
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void updateItemAfterConcurrentVersionBumpTest() {
+        UserDto user = userService.createUser(userDto);
+        ItemDto item = service.createItem(user.getId(), itemSaveDto);
+        int version = transactionTemplate.execute(status -> em.find(Item.class, item.getId()).getVersion());
+        TransactionTemplate concurrentTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        concurrentTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        AtomicBoolean bumped = new AtomicBoolean();
+        doAnswer(invocation -> {
+            Optional<Item> loaded = em.createQuery("select it from Item it join fetch it.owner where it.id = :id",
+                            Item.class)
+                    .setParameter("id", item.getId())
+                    .getResultStream()
+                    .findFirst();
+            if (bumped.compareAndSet(false, true)) {
+                concurrentTransaction.executeWithoutResult(status -> itemRepository.incrementVersion(item.getId()));
+            }
+            return loaded;
+        }).when(itemRepository).findWithOwnerById(item.getId());
+        try {
+            ItemDto updatedItem = service.updateItem(user.getId(), item.getId(), itemDto);
+
+            assertThat(updatedItem.getName(), equalTo(itemDto.getName()));
+            assertThat(transactionTemplate.execute(status -> em.find(Item.class, item.getId()).getVersion()),
+                    equalTo(version + 2));
+            verify(itemRepository, times(2)).findWithOwnerById(item.getId());
+        } finally {
+            transactionTemplate.executeWithoutResult(status -> em.remove(em.find(Item.class, item.getId())));
+            userService.deleteUser(user.getId());
+        }
+    }
 }
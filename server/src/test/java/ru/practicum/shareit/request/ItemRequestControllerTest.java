@@ -11,7 +11,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
-import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dto.UserShortDto;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
@@ -43,7 +43,7 @@ public class ItemRequestControllerTest {
         requestDto = new ItemRequestDto();
         requestDto.setId(1);
         requestDto.setDescription("description");
-        requestDto.setRequester(new User(1, "Dima", "Dima@yandex.ru"));
+        requestDto.setRequester(new UserShortDto(1, "Dima"));
         requestDto.setCreated(LocalDateTime.now());
         requestDto.setItems(List.of());
     }
@@ -91,7 +91,7 @@ public class ItemRequestControllerTest {
     void getAllRequestsTest() {
         Collection<ItemRequestDto> requests = List.of(requestDto);
 
-        when(requestService.getAllRequests(anyInt())).thenReturn(requests);
+        when(requestService.getAllRequests(1, 0, 10, null)).thenReturn(requests);
 
         mvc.perform(get("/requests/all")
                         .header("X-Sharer-User-Id", 1)
@@ -103,7 +103,7 @@ public class ItemRequestControllerTest {
                 .andExpect(jsonPath("$[0].id", is(requestDto.getId()), Integer.class))
                 .andExpect(jsonPath("$[0].description", is(requestDto.getDescription())));
 
-        verify(requestService, times(1)).getAllRequests(anyInt());
+        verify(requestService, times(1)).getAllRequests(1, 0, 10, null);
     }
 
     @SneakyThrows
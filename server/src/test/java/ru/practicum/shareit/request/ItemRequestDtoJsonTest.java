@@ -7,7 +7,7 @@ import org.springframework.boot.test.autoconfigure.json.JsonTest;
 import org.springframework.boot.test.json.JacksonTester;
 import org.springframework.boot.test.json.JsonContent;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
-import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dto.UserShortDto;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -24,7 +24,7 @@ public class ItemRequestDtoJsonTest {
         ItemRequestDto requestDto = new ItemRequestDto(
                 1,
                 "description",
-                new User(),
+                new UserShortDto(1, "Dima"),
                 LocalDateTime.now(),
                 new ArrayList<>());
 
@@ -10,12 +10,17 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.ItemRequestNotFoundException;
 import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.item.dto.ItemSaveDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
@@ -32,6 +37,7 @@ public class ItemRequestServiceImplTest {
     private final EntityManager em;
     private final ItemRequestService service;
     private final UserService userService;
+    private final ItemService itemService;
 
     private ItemRequestDto requestDto;
     private UserDto userDto;
@@ -104,7 +110,7 @@ public class ItemRequestServiceImplTest {
         service.createRequest(userId, requestDto);
         List<ItemRequestDto> sourceRequests = List.of();
 
-        Collection<ItemRequestDto> targetRequests = service.getAllRequests(userId);
+        Collection<ItemRequestDto> targetRequests = service.getAllRequests(userId, 0, 10, null);
 
         assertThat(targetRequests, hasSize(sourceRequests.size()));
         for (ItemRequestDto sourceRequest : sourceRequests) {
@@ -114,6 +120,74 @@ public class ItemRequestServiceImplTest {
         }
     }
 
+    @Test
+    void getAllRequestsWithItemsTest() {
+        UserDto requester = userService.createUser(userDto);
+        UserDto ownerDto = new UserDto();
+        ownerDto.setName("owner");
+        ownerDto.setEmail("owner@yandex.ru");
+        UserDto owner = userService.createUser(ownerDto);
+        ItemRequestDto first = service.createRequest(requester.getId(), requestDto);
+        ItemRequestDto second = service.createRequest(requester.getId(), requestDto);
+        ItemRequestDto third = service.createRequest(requester.getId(), requestDto);
+        ItemSaveDto itemSaveDto = new ItemSaveDto();
+        itemSaveDto.setName("name");
+        itemSaveDto.setDescription("description");
+        itemSaveDto.setAvailable(true);
+        itemSaveDto.setRequestId(first.getId());
+        itemService.createItem(owner.getId(), itemSaveDto);
+        itemService.createItem(owner.getId(), itemSaveDto);
+        itemSaveDto.setRequestId(second.getId());
+        itemService.createItem(owner.getId(), itemSaveDto);
+
+        Collection<ItemRequestDto> targetRequests = service.getAllRequests(owner.getId(), 0, 10, null);
+
+        assertThat(targetRequests, hasSize(3));
+        assertThat(targetRequests, hasItem(allOf(
+                hasProperty("id", equalTo(first.getId())),
+                hasProperty("items", hasSize(2)))));
+        assertThat(targetRequests, hasItem(allOf(
+                hasProperty("id", equalTo(second.getId())),
+                hasProperty("items", hasSize(1)))));
+        assertThat(targetRequests, hasItem(allOf(
+                hasProperty("id", equalTo(third.getId())),
+                hasProperty("items", empty()))));
+    }
+
+    @Test
+    void getAllRequestsKeysetPagesTest() {
+        UserDto requester = userService.createUser(userDto);
+        UserDto otherDto = new UserDto();
+        otherDto.setName("other");
+        otherDto.setEmail("other@yandex.ru");
+        UserDto other = userService.createUser(otherDto);
+        LocalDateTime created = LocalDateTime.now().withNano(0);
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ItemRequest request = ItemRequest.builder()
+                    .description("description " + i)
+                    .requester(em.find(User.class, requester.getId()))
+                    .build();
+            em.persist(request);
+            request.setCreated(created.minusHours(i % 2 == 0 ? i : i - 1));
+            ids.add(request.getId());
+        }
+        em.flush();
+        List<Integer> expected = List.of(ids.get(1), ids.get(0), ids.get(3), ids.get(2), ids.get(4));
+
+        List<ItemRequestDto> firstPage = List.copyOf(service.getAllRequests(other.getId(), 0, 2, null));
+        KeysetCursor cursor = new KeysetCursor(firstPage.get(1).getCreated(), firstPage.get(1).getId());
+        List<ItemRequestDto> secondPage = List.copyOf(service.getAllRequests(other.getId(), 0, 2, cursor));
+        List<ItemRequestDto> lastPage = List.copyOf(service.getAllRequests(other.getId(), 4, 2, null));
+        List<ItemRequestDto> unalignedPage = List.copyOf(service.getAllRequests(other.getId(), 1, 2, null));
+
+        assertThat(firstPage.stream().map(ItemRequestDto::getId).toList(), equalTo(expected.subList(0, 2)));
+        assertThat(secondPage.stream().map(ItemRequestDto::getId).toList(), equalTo(expected.subList(2, 4)));
+        assertThat(lastPage.stream().map(ItemRequestDto::getId).toList(), equalTo(expected.subList(4, 5)));
+        assertThat(unalignedPage.stream().map(ItemRequestDto::getId).toList(), equalTo(expected.subList(1, 3)));
+        assertThat(service.getAllRequests(requester.getId(), 0, 10, null), empty());
+    }
+
     @Test
     void getRequestByIdTest() {
         UserDto user = userService.createUser(userDto);
@@ -0,0 +1,67 @@
+package ru.practicum.shareit.user;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.user.service.UserCache;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+public class UserCacheTest {
+    private final User user = new User(1, "name", "user@yandex.ru", 0);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private UserCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new UserCache(100, Duration.ofMinutes(10), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void getLoadsOnceTest() {
+        cache.get(user.getId(), this::load);
+        Optional<User> cached = cache.get(user.getId(), this::load);
+
+        assertThat(cached.map(User::getName), equalTo(Optional.of(user.getName())));
+        assertThat(loads.get(), equalTo(1));
+    }
+
+    @Test
+    void loaderRunsOutsideCacheTest() {
+        Optional<User> loaded = cache.get(user.getId(), id -> cache.get(id, this::load));
+
+        assertThat(loaded.map(User::getId), equalTo(Optional.of(user.getId())));
+        assertThat(loads.get(), equalTo(1));
+    }
+
+    @Test
+    void invalidateDuringLoadTest() {
+        cache.get(user.getId(), id -> {
+            Optional<User> stale = load(id);
+            cache.invalidate(id);
+            return stale;
+        });
+        cache.get(user.getId(), this::load);
+
+        assertThat(loads.get(), equalTo(2));
+    }
+
+    @Test
+    void missingUserIsNotCachedTest() {
+        cache.get(user.getId(), id -> Optional.empty());
+        cache.get(user.getId(), this::load);
+
+        assertThat(loads.get(), equalTo(1));
+    }
+
+    private Optional<User> load(int id) {
+        loads.incrementAndGet();
+        return Optional.of(user);
+    }
+}
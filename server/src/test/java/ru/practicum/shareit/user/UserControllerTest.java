@@ -7,8 +7,11 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.config.EtagConfig;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
@@ -17,12 +20,15 @@ import java.util.Collection;
 import java.util.List;
 
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = UserController.class)
+@Import(EtagConfig.class)
 public class UserControllerTest {
     @Autowired
     ObjectMapper mapper;
@@ -103,6 +109,74 @@ public class UserControllerTest {
         verify(userService, times(1)).getUserById(userId);
     }
 
+    @SneakyThrows
+    @Test
+    void getUserByIdNotModifiedTest() {
+        int userId = userDto.getId();
+
+        when(userService.getUserETag(userId)).thenReturn("3");
+
+        mvc.perform(get("/users/{id}", userId)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"3\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+
+        verify(userService, never()).getUserById(userId);
+    }
+
+    @SneakyThrows
+    @Test
+    void getUserByIdWithoutBodyHashTest() {
+        int userId = userDto.getId();
+
+        when(userService.getUserById(userId)).thenReturn(userDto);
+
+        mvc.perform(get("/users/{id}", userId)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+
+    @SneakyThrows
+    @Test
+    void getAllUsersNotModifiedTest() {
+        when(userService.getAllUsers()).thenReturn(List.of(userDto));
+
+        String eTag = mvc.perform(get("/users")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, startsWith("\"")))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(get("/users")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag));
+    }
+
+    @SneakyThrows
+    @Test
+    void getUserByIdVersionETagTest() {
+        int userId = userDto.getId();
+
+        when(userService.getUserETag(userId)).thenReturn("2");
+        when(userService.getUserById(userId)).thenReturn(userDto);
+
+        mvc.perform(get("/users/{id}", userId)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2\""));
+
+        mvc.perform(get("/users/{id}", userId)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"2\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified());
+
+        verify(userService, times(1)).getUserById(userId);
+    }
+
     @SneakyThrows
     @Test
     void getAllUsersTest() {
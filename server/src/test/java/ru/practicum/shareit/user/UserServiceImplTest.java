@@ -1,5 +1,6 @@
 package ru.practicum.shareit.user;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.TypedQuery;
 import lombok.RequiredArgsConstructor;
@@ -29,6 +30,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 public class UserServiceImplTest {
     private final EntityManager em;
     private final UserService service;
+    private final MeterRegistry meterRegistry;
 
     private UserDto userDto;
     private UserDto userDto2;
@@ -159,4 +161,38 @@ public class UserServiceImplTest {
 
         assertThrows(UserNotFoundException.class, () -> service.getUserById(userId));
     }
+
+    @Test
+    void getUserFromCacheTest() {
+        UserDto savedUser = service.createUser(userDto);
+        double hitsBefore = cacheGets("hit");
+
+        User user = service.getUser(savedUser.getId());
+        user.setName("changed");
+
+        assertThat(service.existsById(savedUser.getId()), equalTo(true));
+        assertThat(service.getUser(savedUser.getId()).getName(), equalTo(userDto.getName()));
+        assertThat(cacheGets("hit") - hitsBefore, equalTo(3.0));
+    }
+
+    @Test
+    void getUserAfterUpdateAndDeleteTest() {
+        UserDto savedUser = service.createUser(userDto);
+        int userId = savedUser.getId();
+        service.getUser(userId);
+
+        service.updateUser(userId, userDto2);
+        User updatedUser = service.getUser(userId);
+        service.deleteUser(userId);
+
+        assertThat(updatedUser.getName(), equalTo(userDto2.getName()));
+        assertThat(updatedUser.getEmail(), equalTo(userDto2.getEmail()));
+        assertThat(service.existsById(userId), equalTo(false));
+        assertThrows(UserNotFoundException.class, () -> service.getUser(userId));
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", "users").tag("result", result)
+                .functionCounter().count();
+    }
 }